@@ -0,0 +1,85 @@
+package com.etnetera.hr.benchmark;
+
+import com.etnetera.hr.Application;
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.JavaScriptFramework;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Application context on the embedded database and the frameworks shared by the benchmarks
+ */
+final class BenchmarkApplication {
+
+    private static final int SEED_CHUNK_SIZE = 1000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application without the web server
+     * @param properties additional properties in the key=value form, they override application.yml
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        // default properties would lose to application.yml, arguments don't
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=warn")
+                .run(Stream.of(properties).map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Inserts frameworks 0 to count - 1 in chunks, the persistence context is cleared after every chunk
+     */
+    static void seed(ConfigurableApplicationContext context, int count) {
+        var entityManager = context.getBean(EntityManager.class);
+        var transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        for (int start = 0; start < count; start += SEED_CHUNK_SIZE) {
+            int end = Math.min(start + SEED_CHUNK_SIZE, count);
+            int from = start;
+            transaction.execute(status -> {
+                for (int i = from; i < end; i++) {
+                    entityManager.persist(framework(i));
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            });
+        }
+    }
+
+    static String name(int i) {
+        return "Framework " + i;
+    }
+
+    /**
+     * Framework with two versions, one of them is shared by a tenth and the other by a hundredth of all the frameworks.
+     * Every third framework is deprecated.
+     */
+    static JavaScriptFramework framework(int i) {
+        var versions = new HashSet<>(Set.of("1." + (i % 10), "2." + (i % 100)));
+        var deprecationDate = i % 3 == 0 ? LocalDate.of(2010, 1, 1).plusDays(i % 5000) : null;
+        return new JavaScriptFramework(name(i), versions, deprecationDate, HypeLevel.values()[i % HypeLevel.values().length]);
+    }
+
+    /**
+     * Frameworks 0 to count - 1 with ids from 1, without inserting them
+     */
+    static Stream<JavaScriptFramework> frameworks(int count) {
+        return Stream.iterate(0, i -> i < count, i -> i + 1).map(i -> {
+            var framework = framework(i);
+            framework.setId((long) i + 1);
+            return framework;
+        });
+    }
+}
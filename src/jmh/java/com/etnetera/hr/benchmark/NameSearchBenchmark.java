@@ -0,0 +1,83 @@
+package com.etnetera.hr.benchmark;
+
+import com.etnetera.hr.data.NameMatch;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchResultDTO;
+import com.etnetera.hr.service.JavaScriptFrameworkNameIndex;
+import com.etnetera.hr.service.JavaScriptFrameworkService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring search scanning all the names compared to the trigram index and to a prefix search on the name index.
+ * <p>
+ * The rarest trigrams of the query, {@code 424} and {@code 242}, are each in 3979 of a million names,
+ * so the maximum of candidates is raised above that for the index to be used at every size.
+ * The index narrows them down to the 112 names containing all the trigrams.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class NameSearchBenchmark {
+
+    public enum Match {
+        CONTAINS, CONTAINS_TRIGRAM_INDEX, PREFIX
+    }
+
+    private static final int MAX_CANDIDATES = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param
+    public Match match;
+
+    private ConfigurableApplicationContext context;
+
+    private JavaScriptFrameworkService service;
+
+    private final JavaScriptFrameworkSearchCriteria criteria = new JavaScriptFrameworkSearchCriteria();
+
+    private final Pageable pageable = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("frameworks.search.name-index.enabled=" + (match == Match.CONTAINS_TRIGRAM_INDEX),
+                "frameworks.search.name-index.max-candidates=" + MAX_CANDIDATES);
+        BenchmarkApplication.seed(context, size);
+        // the index was built at startup from the empty database
+        var nameIndex = context.getBean(JavaScriptFrameworkNameIndex.class);
+        nameIndex.build();
+        service = context.getBean(JavaScriptFrameworkService.class);
+
+        if (match == Match.PREFIX) {
+            criteria.setName("framework 4242");
+            criteria.setNameMatch(NameMatch.PREFIX);
+        } else {
+            criteria.setName("work 4242");
+        }
+
+        if (match == Match.CONTAINS_TRIGRAM_INDEX && nameIndex.candidates(criteria.getName()).isEmpty()) {
+            // the search would silently scan all the names
+            throw new IllegalStateException("Name index doesn't narrow down " + criteria.getName() + " among " + size + " frameworks");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public JavaScriptFrameworkSearchResultDTO search() {
+        return service.search(criteria, pageable, false);
+    }
+}
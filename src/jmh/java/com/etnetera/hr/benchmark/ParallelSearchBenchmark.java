@@ -0,0 +1,94 @@
+package com.etnetera.hr.benchmark;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchResultDTO;
+import com.etnetera.hr.service.JavaScriptFrameworkService;
+import com.etnetera.hr.service.JavaScriptFrameworkSnapshotService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential and parallel snapshot searches over {@link #size} frameworks, every search is split once the pool
+ * has more than one thread. The size from which the parallel search is faster is the one to configure
+ * as {@code frameworks.snapshot.parallel-threshold}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelSearchBenchmark {
+
+    public enum Search {
+        // names are compared for every framework
+        NAME("work 42", Sort.by("id")),
+        // every name matches, the frameworks of two hype levels are sorted
+        NAME_BY_DEPRECATION("", Sort.by("deprecationDate", "id"), HypeLevel.LOW, HypeLevel.HIGH);
+
+        private final String name;
+
+        private final Sort sort;
+
+        private final Set<HypeLevel> hypeLevels;
+
+        Search(String name, Sort sort, HypeLevel... hypeLevels) {
+            this.name = name;
+            this.sort = sort;
+            this.hypeLevels = Set.of(hypeLevels);
+        }
+    }
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * Threads of the pool, 1 for the sequential search
+     */
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int parallelism;
+
+    @Param
+    public Search search;
+
+    private ConfigurableApplicationContext context;
+
+    private JavaScriptFrameworkService service;
+
+    private JavaScriptFrameworkSearchCriteria criteria;
+
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("frameworks.snapshot.enabled=true",
+                "frameworks.snapshot.search-parallelism=" + parallelism,
+                "frameworks.snapshot.parallel-threshold=0");
+        BenchmarkApplication.seed(context, size);
+        // seeded without modification numbers, so they aren't picked up by the change feed
+        context.getBean(JavaScriptFrameworkSnapshotService.class).load();
+        service = context.getBean(JavaScriptFrameworkService.class);
+
+        criteria = new JavaScriptFrameworkSearchCriteria();
+        criteria.setName(search.name);
+        criteria.setHypeLevel(search.hypeLevels);
+        pageable = PageRequest.of(0, 20, search.sort);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public JavaScriptFrameworkSearchResultDTO search() {
+        return service.search(criteria, pageable, false);
+    }
+}
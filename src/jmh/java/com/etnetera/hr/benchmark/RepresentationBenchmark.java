@@ -0,0 +1,90 @@
+package com.etnetera.hr.benchmark;
+
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTOSerializer;
+import com.etnetera.hr.dto.JavaScriptFrameworkPageDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writing a page of frameworks in each of the negotiated formats, optionally gzipped as the server does it.
+ * The size of the written payload is reported as the {@code bytes} secondary result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepresentationBenchmark {
+
+    public enum Format {
+        JSON(JsonFactory::new),
+        SMILE(() -> new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)),
+        CBOR(CBORFactory::new);
+
+        private final Supplier<JsonFactory> factory;
+
+        Format(Supplier<JsonFactory> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param
+    public Format format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private JavaScriptFrameworkPageDTO page;
+
+    private ObjectWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var items = BenchmarkApplication.frameworks(size)
+                .map(JavaScriptFrameworkDTO::new)
+                .collect(Collectors.toList());
+        page = new JavaScriptFrameworkPageDTO(items, (long) size);
+        // the same modules and serializers as the converters of the application, see RepresentationConfig
+        writer = Jackson2ObjectMapperBuilder.json()
+                .factory(format.factory.get())
+                .serializerByType(JavaScriptFrameworkDTO.class, new JavaScriptFrameworkDTOSerializer())
+                .build()
+                .writer();
+    }
+
+    @Benchmark
+    public byte[] write(Payload payload) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            writer.writeValue(out, page);
+        }
+        var written = bytes.toByteArray();
+        payload.bytes = written.length;
+        return written;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Payload {
+
+        public long bytes;
+    }
+}
@@ -0,0 +1,69 @@
+package com.etnetera.hr.benchmark;
+
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTOSerializer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mapping of loaded entities and writing of the response body, neither touches the database.
+ * Run with the GC profiler to compare the bytes allocated per operation ({@code gc.alloc.rate.norm}):
+ * {@code gradle jmh -PjmhIncludes=SerializationBenchmark -PjmhProfilers=gc}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    public enum Serializer {
+        // Jackson bean serialization of the getters
+        BEAN,
+        STREAMING
+    }
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param
+    public Serializer serializer;
+
+    private List<JavaScriptFramework> frameworks;
+
+    private List<JavaScriptFrameworkDTO> dtos;
+
+    private ObjectWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        frameworks = BenchmarkApplication.frameworks(size).collect(Collectors.toList());
+        dtos = mapToDto();
+        // registers the same Jackson modules as the mapper of the application
+        var builder = Jackson2ObjectMapperBuilder.json();
+        if (serializer == Serializer.STREAMING) {
+            builder.serializerByType(JavaScriptFrameworkDTO.class, new JavaScriptFrameworkDTOSerializer());
+        }
+        writer = builder.build().writer();
+    }
+
+    @Benchmark
+    public List<JavaScriptFrameworkDTO> mapToDto() {
+        return frameworks.stream()
+                .map(JavaScriptFrameworkDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(dtos);
+    }
+}
@@ -0,0 +1,130 @@
+package com.etnetera.hr.benchmark;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.NameMatch;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchResultDTO;
+import com.etnetera.hr.service.JavaScriptFrameworkService;
+import com.etnetera.hr.service.JavaScriptFrameworkSnapshotService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Service calls against the embedded database holding {@link #size} frameworks
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    /**
+     * Reads served from the in-memory snapshot instead of the database
+     */
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private ConfigurableApplicationContext context;
+
+    private JavaScriptFrameworkService service;
+
+    private final AtomicLong addedVersions = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("frameworks.snapshot.enabled=" + snapshot);
+        BenchmarkApplication.seed(context, size);
+        if (snapshot) {
+            // seeded without modification numbers, so they aren't picked up by the change feed
+            context.getBean(JavaScriptFrameworkSnapshotService.class).load();
+        }
+        service = context.getBean(JavaScriptFrameworkService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public JavaScriptFrameworkSearchResultDTO search(SearchState state) {
+        return service.search(state.criteria, state.pageable, false);
+    }
+
+    @Benchmark
+    public List<JavaScriptFrameworkDTO> findAllFrameworks() {
+        return service.findAllFrameworks();
+    }
+
+    @Benchmark
+    public void addVersion() {
+        long added = addedVersions.incrementAndGet();
+        service.addVersion(BenchmarkApplication.name((int) (added % size)), "bench-" + added);
+    }
+
+    /**
+     * First page of the default search size for every combination of filters
+     */
+    @State(Scope.Benchmark)
+    public static class SearchState {
+
+        public enum Filter {
+            NONE(criteria -> {
+            }),
+            NAME(criteria -> criteria.setName("work 42")),
+            NAME_PREFIX(criteria -> {
+                criteria.setName("framework 42");
+                criteria.setNameMatch(NameMatch.PREFIX);
+            }),
+            VERSIONS(criteria -> criteria.setVersion(Set.of("2.42", "2.43"))),
+            HYPE_LEVELS(criteria -> criteria.setHypeLevel(Set.of(HypeLevel.HIGH, HypeLevel.INSANE))),
+            // the date of framework 42 and of every 15000th framework after it
+            DEPRECATION_DATE(criteria -> criteria.setDeprecationDate(LocalDate.of(2010, 1, 1).plusDays(42))),
+            DEPRECATED_RANGE(criteria -> {
+                criteria.setDeprecatedAfter(LocalDate.of(2011, 1, 1));
+                criteria.setDeprecatedBefore(LocalDate.of(2012, 1, 1));
+            }),
+            ALL(criteria -> {
+                NAME.configure.accept(criteria);
+                VERSIONS.configure.accept(criteria);
+                HYPE_LEVELS.configure.accept(criteria);
+                DEPRECATED_RANGE.configure.accept(criteria);
+            });
+
+            private final Consumer<JavaScriptFrameworkSearchCriteria> configure;
+
+            Filter(Consumer<JavaScriptFrameworkSearchCriteria> configure) {
+                this.configure = configure;
+            }
+        }
+
+        @Param
+        public Filter filter;
+
+        JavaScriptFrameworkSearchCriteria criteria;
+
+        final Pageable pageable = PageRequest.of(0, 20, Sort.by("id"));
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            criteria = new JavaScriptFrameworkSearchCriteria();
+            filter.configure.accept(criteria);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.etnetera.hr;
 
+import com.etnetera.hr.config.FrameworkProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 /**
  * etnRest homework application which provides a REST service for querying JavaScript Frameworks
@@ -10,6 +12,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *
  */
 @SpringBootApplication
+@EnableConfigurationProperties(FrameworkProperties.class)
 public class Application {
 
 	public static void main(String[] args) {
@@ -0,0 +1,472 @@
+package com.etnetera.hr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Tuning of the framework service, bound from the {@code frameworks} section of application.yml
+ */
+@ConfigurationProperties(prefix = "frameworks")
+public class FrameworkProperties {
+
+    private final Cache cache = new Cache();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Search search = new Search();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Replica replica = new Replica();
+
+    private final Events events = new Events();
+
+    private final Changes changes = new Changes();
+
+    private final Snapshot snapshot = new Snapshot();
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final Stats stats = new Stats();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Replica getReplica() {
+        return replica;
+    }
+
+    public Events getEvents() {
+        return events;
+    }
+
+    public Changes getChanges() {
+        return changes;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    public static class Cache {
+
+        /**
+         * Maximum number of frameworks held by each of the id and name caches
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long a cached framework may be served before it is read from the database again
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class Bulk {
+
+        /**
+         * Number of frameworks committed in one transaction by the bulk import
+         */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Search {
+
+        private final NameIndex nameIndex = new NameIndex();
+
+        public NameIndex getNameIndex() {
+            return nameIndex;
+        }
+
+        public static class NameIndex {
+
+            /**
+             * Whether substring name searches are narrowed down by an in-memory trigram index,
+             * the index applies the modifications of all instances from the change log before each search
+             */
+            private boolean enabled = false;
+
+            /**
+             * Searches for which the index yields more candidates fall back to scanning the names
+             */
+            private int maxCandidates = 1000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxCandidates() {
+                return maxCandidates;
+            }
+
+            public void setMaxCandidates(int maxCandidates) {
+                this.maxCandidates = maxCandidates;
+            }
+        }
+    }
+
+    public static class Metrics {
+
+        /**
+         * Repository calls taking longer are logged as slow queries
+         */
+        private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+        public Duration getSlowQueryThreshold() {
+            return slowQueryThreshold;
+        }
+
+        public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+            this.slowQueryThreshold = slowQueryThreshold;
+        }
+    }
+
+    public static class Replica {
+
+        /**
+         * Whether read-only transactions go to the replica
+         */
+        private boolean enabled = false;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /**
+         * How long after a write the reads of the same client go to the primary, should exceed the replication lag
+         */
+        private Duration readYourWrites = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public Duration getReadYourWrites() {
+            return readYourWrites;
+        }
+
+        public void setReadYourWrites(Duration readYourWrites) {
+            this.readYourWrites = readYourWrites;
+        }
+    }
+
+    public static class Events {
+
+        /**
+         * Number of missed modifications a reconnecting subscriber can resume from, a subscriber which missed more is reset
+         */
+        private int historySize = 1000;
+
+        /**
+         * Events waiting to be sent to a subscriber, a subscriber falling further behind is disconnected
+         */
+        private int subscriberBuffer = 256;
+
+        /**
+         * Interval of the comments keeping idle connections open
+         */
+        private Duration heartbeat = Duration.ofSeconds(15);
+
+        /**
+         * Time after which a subscriber is disconnected and has to resume
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        /**
+         * Threads writing the events to the subscribers
+         */
+        private int dispatchThreads = 2;
+
+        /**
+         * Time a write to a subscriber may block before the subscriber is disconnected
+         */
+        private Duration sendTimeout = Duration.ofSeconds(10);
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+
+        public int getSubscriberBuffer() {
+            return subscriberBuffer;
+        }
+
+        public void setSubscriberBuffer(int subscriberBuffer) {
+            this.subscriberBuffer = subscriberBuffer;
+        }
+
+        public Duration getHeartbeat() {
+            return heartbeat;
+        }
+
+        public void setHeartbeat(Duration heartbeat) {
+            this.heartbeat = heartbeat;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getDispatchThreads() {
+            return dispatchThreads;
+        }
+
+        public void setDispatchThreads(int dispatchThreads) {
+            this.dispatchThreads = dispatchThreads;
+        }
+
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+    }
+
+    public static class Changes {
+
+        /**
+         * How often the change log is read for the modifications of the import and of other instances,
+         * writes of the service are read right after they commit
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * How long tombstones of deleted frameworks are kept, a client which asks for older changes
+         * must read all the frameworks again
+         */
+        private Duration tombstoneRetention = Duration.ofDays(30);
+
+        /**
+         * How often tombstones older than the retention are removed
+         */
+        private Duration pruneInterval = Duration.ofHours(1);
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getTombstoneRetention() {
+            return tombstoneRetention;
+        }
+
+        public void setTombstoneRetention(Duration tombstoneRetention) {
+            this.tombstoneRetention = tombstoneRetention;
+        }
+
+        public Duration getPruneInterval() {
+            return pruneInterval;
+        }
+
+        public void setPruneInterval(Duration pruneInterval) {
+            this.pruneInterval = pruneInterval;
+        }
+    }
+
+    public static class Snapshot {
+
+        /**
+         * Serve the reads from an in-memory copy of all the frameworks instead of the database
+         */
+        private boolean enabled = false;
+
+        /**
+         * Threads a search of the copy is split across, 1 evaluates every search on the request thread
+         */
+        private int searchParallelism = 1;
+
+        /**
+         * Candidates from which a search is split, smaller ones stay on the request thread. Provisional default,
+         * not derived from a measured crossover: set it to the size from which ParallelSearchBenchmark shows
+         * the parallel search faster on the target machines
+         */
+        private int parallelThreshold = 50_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSearchParallelism() {
+            return searchParallelism;
+        }
+
+        public void setSearchParallelism(int searchParallelism) {
+            this.searchParallelism = searchParallelism;
+        }
+
+        public int getParallelThreshold() {
+            return parallelThreshold;
+        }
+
+        public void setParallelThreshold(int parallelThreshold) {
+            this.parallelThreshold = parallelThreshold;
+        }
+    }
+
+    public static class ResponseCache {
+
+        /**
+         * Serve repeated list and search requests from the bodies written for the same request before
+         */
+        private boolean enabled = true;
+
+        /**
+         * Total size of the cached bodies, including their gzipped copies
+         */
+        private DataSize maximumSize = DataSize.ofMegabytes(16);
+
+        /**
+         * How long a body may be served, only modifications which bypass the change counter are seen once it expires
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(DataSize maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class Stats {
+
+        /**
+         * Number of frameworks with the most versions in the statistics
+         */
+        private int mostVersioned = 10;
+
+        /**
+         * Maximum number of filter combinations whose statistics are cached
+         */
+        private long cacheSize = 1000;
+
+        public int getMostVersioned() {
+            return mostVersioned;
+        }
+
+        public void setMostVersioned(int mostVersioned) {
+            this.mostVersioned = mostVersioned;
+        }
+
+        public long getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(long cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+    }
+}
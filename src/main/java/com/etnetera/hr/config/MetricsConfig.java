@@ -0,0 +1,40 @@
+package com.etnetera.hr.config;
+
+import com.etnetera.hr.metrics.RepositoryMetricsAspect;
+import com.etnetera.hr.metrics.StatementCountInterceptor;
+import com.etnetera.hr.metrics.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Instrumentation of the repository and of the SQL statements on top of the request, cache and connection pool
+ * metrics provided by Spring Boot
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public RepositoryMetricsAspect repositoryMetricsAspect(MeterRegistry meterRegistry, FrameworkProperties properties) {
+        return new RepositoryMetricsAspect(meterRegistry, properties.getMetrics().getSlowQueryThreshold());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public WebMvcConfigurer statementCountConfigurer(MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new StatementCountInterceptor(meterRegistry));
+            }
+        };
+    }
+}
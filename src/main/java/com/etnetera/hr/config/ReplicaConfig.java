@@ -0,0 +1,88 @@
+package com.etnetera.hr.config;
+
+import com.etnetera.hr.routing.ReadYourWritesFilter;
+import com.etnetera.hr.routing.ReadYourWritesInterceptor;
+import com.etnetera.hr.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Clock;
+
+/**
+ * Read replica enabled by {@code frameworks.replica.enabled}. Read-only transactions go to the replica,
+ * unless the client has written within {@code frameworks.replica.read-your-writes}.
+ * The primary keeps the {@code spring.datasource} settings, the replica pool is tuned by {@code frameworks.replica.hikari}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "frameworks.replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("frameworks.replica.hikari")
+    public HikariDataSource replicaDataSource(FrameworkProperties properties) {
+        var replica = properties.getReplica();
+        var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replica.getUrl())
+                .username(replica.getUsername())
+                .password(replica.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Used by JPA and Flyway, connections are fetched only by the first statement of a transaction,
+     * when it's known whether it is read-only.
+     * <p>
+     * The pools are lazy, Spring Boot initializes every data source bean with the primary one, which would be
+     * still in creation if it depended on them. The connection defaults of the pools are given, so that no
+     * connection is fetched to find them out.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Lazy @Qualifier("primaryDataSource") DataSource primary, @Lazy @Qualifier("replicaDataSource") DataSource replica) {
+        var dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(new ReplicaRoutingDataSource(primary, replica));
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(FrameworkProperties properties) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReplica().getReadYourWrites(), Clock.systemUTC()));
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ReadYourWritesInterceptor(Clock.systemUTC()));
+            }
+        };
+    }
+}
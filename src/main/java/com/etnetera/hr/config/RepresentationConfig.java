@@ -0,0 +1,57 @@
+package com.etnetera.hr.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary representations of the same DTOs as the JSON ones, written by the mapper configured by Spring Boot.
+ * They are added after the JSON converter, so JSON stays the default for clients accepting anything.
+ */
+@Configuration
+public class RepresentationConfig implements WebMvcConfigurer {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final String CBOR_VALUE = "application/cbor";
+
+    private final Jackson2ObjectMapperBuilder smileBuilder;
+
+    private final Jackson2ObjectMapperBuilder cborBuilder;
+
+    /**
+     * @param smileBuilder builders are prototypes, each parameter gets its own
+     */
+    public RepresentationConfig(Jackson2ObjectMapperBuilder smileBuilder, Jackson2ObjectMapperBuilder cborBuilder) {
+        this.smileBuilder = smileBuilder;
+        this.cborBuilder = cborBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // hype levels and versions repeat from framework to framework, Smile writes them once and refers back to them
+        var smileFactory = new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+        // Spring MVC adds its own converters of both when Jackson supports them, these would never be used
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(binary(new MappingJackson2SmileHttpMessageConverter(smileBuilder.factory(smileFactory).build())));
+        converters.add(binary(new MappingJackson2CborHttpMessageConverter(cborBuilder.factory(new CBORFactory()).build())));
+    }
+
+    /**
+     * Jackson converters add the UTF-8 charset to every content type, binary ones have none
+     */
+    private static AbstractJackson2HttpMessageConverter binary(AbstractJackson2HttpMessageConverter converter) {
+        converter.setDefaultCharset(null);
+        return converter;
+    }
+}
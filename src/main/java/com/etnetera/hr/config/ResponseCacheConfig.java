@@ -0,0 +1,47 @@
+package com.etnetera.hr.config;
+
+import com.etnetera.hr.controller.ResponseBodyCacheFilter;
+import com.etnetera.hr.service.JavaScriptFrameworkChangeFeed;
+import com.etnetera.hr.service.JavaScriptFrameworkSnapshotService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the list, search and statistics response bodies enabled by {@code frameworks.response-cache.enabled}.
+ * Bodies are gzipped in advance when {@code server.compression} is enabled, from its minimum response size.
+ * <p>
+ * The generation is the number of the latest modification the bodies are read at, held in memory so that no request
+ * reads it from the database: the version of the snapshot when the reads are served from it, otherwise
+ * {@link JavaScriptFrameworkChangeFeed#readableChangeSeq()}, which a lagging replica holds back.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "frameworks.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<ResponseBodyCacheFilter> responseBodyCacheFilter(FrameworkProperties properties, ServerProperties serverProperties,
+                                                                                   ObjectProvider<JavaScriptFrameworkSnapshotService> snapshotService,
+                                                                                   JavaScriptFrameworkChangeFeed changeFeed,
+                                                                                   MeterRegistry meterRegistry) {
+        var config = properties.getResponseCache();
+        var compression = serverProperties.getCompression();
+        int gzipMinSize = compression.getEnabled() ? (int) compression.getMinResponseSize().toBytes() : -1;
+
+        var snapshot = snapshotService.getIfAvailable();
+        LongSupplier generation = snapshot == null ? changeFeed::readableChangeSeq : () -> snapshot.collectionVersion().getChangeSeq();
+
+        var registration = new FilterRegistrationBean<>(new ResponseBodyCacheFilter(generation,
+                config.getMaximumSize().toBytes(), config.getTimeToLive(), gzipMinSize, meterRegistry));
+        registration.addUrlPatterns("/api/v1/frameworks", "/api/v1/frameworks/search", "/api/v1/frameworks/stats");
+        return registration;
+    }
+}
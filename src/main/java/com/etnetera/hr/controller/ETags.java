@@ -0,0 +1,102 @@
+package com.etnetera.hr.controller;
+
+import com.etnetera.hr.exception.JavascriptFrameworkInvalidRequestException;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Strong entity tags of frameworks and their comparison with the conditional request headers
+ */
+final class ETags {
+
+	private static final String ANY = "*";
+
+	private static final String WEAK_PREFIX = "W/";
+
+	private ETags() {
+	}
+
+	static String of(Object value) {
+		return "\"" + value + "\"";
+	}
+
+	/**
+	 * Tag of a value whose representations differ in their bytes, e.g. by the negotiated format or compression
+	 */
+	static String weak(Object value) {
+		return WEAK_PREFIX + of(value);
+	}
+
+	/**
+	 * Weak comparison of If-None-Match, weak and strong tags with the same value match each other
+	 */
+	static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		var opaque = opaque(etag);
+		for (String tag : ifNoneMatch.split(",")) {
+			var trimmed = opaque(tag.trim());
+			if (trimmed.equals(ANY) || trimmed.equals(opaque)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String opaque(String tag) {
+		return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+	}
+
+	/**
+	 * Comparison of If-Modified-Since in whole seconds, a date which can't be parsed is ignored
+	 */
+	static boolean notModifiedSince(String ifModifiedSince, Instant lastModified) {
+		if (ifModifiedSince == null) {
+			return false;
+		}
+		try {
+			var since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+			return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+		} catch (DateTimeParseException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Revisions accepted by If-Match. Its tags are compared strongly, so a weak tag matches no revision,
+	 * and a request whose tags all can't match fails as if the framework had been modified.
+	 * @return null if any revision may be modified
+	 * @throws JavascriptFrameworkInvalidRequestException if a tag is not quoted
+	 */
+	static Set<Long> revisions(String ifMatch) {
+		if (ifMatch == null) {
+			return null;
+		}
+		var revisions = new HashSet<Long>();
+		for (String tag : ifMatch.split(",")) {
+			var trimmed = tag.trim();
+			if (trimmed.equals(ANY)) {
+				return null;
+			}
+			var opaque = opaque(trimmed);
+			if (opaque.length() < 2 || !opaque.startsWith("\"") || !opaque.endsWith("\"")) {
+				throw new JavascriptFrameworkInvalidRequestException("If-Match must be a list of ETags of the framework");
+			}
+			if (opaque.length() == trimmed.length()) {
+				try {
+					revisions.add(Long.valueOf(opaque.substring(1, opaque.length() - 1)));
+				} catch (NumberFormatException e) {
+					// can't be the tag of any revision
+				}
+			}
+		}
+		return revisions;
+	}
+}
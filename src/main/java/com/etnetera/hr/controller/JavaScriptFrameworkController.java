@@ -1,15 +1,40 @@
 package com.etnetera.hr.controller;
 
-import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.dto.JavaScriptFrameworkBatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkBatchRequestDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkChangesDTO;
 import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPageDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchResultDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkStatsDTO;
+import com.etnetera.hr.exception.JavascriptFrameworkInvalidRequestException;
 import com.etnetera.hr.exception.JavascriptFrameworkNotFoundException;
+import com.etnetera.hr.service.JavaScriptFrameworkChangeStream;
+import com.etnetera.hr.service.JavaScriptFrameworkImportService;
 import com.etnetera.hr.service.JavaScriptFrameworkService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
-import javax.websocket.server.PathParam;
-import java.time.LocalDate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -21,15 +46,134 @@ import java.util.List;
 @RequestMapping("api/v1/frameworks")
 public class JavaScriptFrameworkController {
 
+	public static final String NDJSON_VALUE = "application/x-ndjson";
+
+	public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+	static final int DEFAULT_PAGE_SIZE = 100;
+
+	static final int MAX_PAGE_SIZE = 1000;
+
+	static final int MAX_BATCH_SIZE = 1000;
+
 	private final JavaScriptFrameworkService service;
 
-	public JavaScriptFrameworkController(JavaScriptFrameworkService service) {
+	private final JavaScriptFrameworkImportService importService;
+
+	private final JavaScriptFrameworkChangeStream changeStream;
+
+	private final ObjectMapper objectMapper;
+
+	public JavaScriptFrameworkController(JavaScriptFrameworkService service, JavaScriptFrameworkImportService importService,
+										 JavaScriptFrameworkChangeStream changeStream, ObjectMapper objectMapper) {
 		this.service = service;
+		this.importService = importService;
+		this.changeStream = changeStream;
+		this.objectMapper = objectMapper;
 	}
 
+	/**
+	 * Page of frameworks tagged by the last modification of the whole collection, an unchanged collection is answered
+	 * by 304 without reading the page. If-Modified-Since is used only without If-None-Match.
+	 * <p>
+	 * The tag is weak, the page is the same in JSON, Smile and CBOR and compressed or not.
+	 */
 	@GetMapping
-	public List<JavaScriptFrameworkDTO> frameworks() {
-		return service.findAllFrameworks();
+	public ResponseEntity<JavaScriptFrameworkPageDTO> frameworks(@RequestParam(required = false) Long after,
+																 @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+																 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+																 @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+		var version = service.collectionVersion();
+		var etag = ETags.weak(version.getChangeSeq());
+		long lastModified = version.getLastModified().toEpochMilli();
+		if (ifNoneMatch != null ? ETags.matches(ifNoneMatch, etag) : ETags.notModifiedSince(ifModifiedSince, version.getLastModified())) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(lastModified).build();
+		}
+
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.lastModified(lastModified)
+				.varyBy(HttpHeaders.ACCEPT)
+				.body(service.findFrameworks(after, Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+	}
+
+	/**
+	 * Frameworks created, updated and deleted after the modification {@code since}, a client keeps a copy of the collection
+	 * in sync by asking again with {@code next} of the previous response, starting with 0. A client which has not asked
+	 * for longer than the tombstones are kept gets {@code 410 Gone} and starts again with 0.
+	 */
+	@GetMapping("/changes")
+	public JavaScriptFrameworkChangesDTO changes(@RequestParam(defaultValue = "0") long since,
+												 @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+		if (since < 0) {
+			throw new JavascriptFrameworkInvalidRequestException("Modification number can't be negative");
+		}
+		return service.findChanges(since, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+	}
+
+	/**
+	 * Frameworks with the given ids and optionally names, e.g. {@code ?ids=1,2,3&names=React}
+	 */
+	@GetMapping(params = "ids")
+	public JavaScriptFrameworkBatchDTO frameworksByIds(@RequestParam List<Long> ids,
+													   @RequestParam(required = false) List<String> names) {
+		return batch(new JavaScriptFrameworkBatchRequestDTO(ids, names));
+	}
+
+	@GetMapping(params = {"names", "!ids"})
+	public JavaScriptFrameworkBatchDTO frameworksByNames(@RequestParam List<String> names) {
+		return batch(new JavaScriptFrameworkBatchRequestDTO(null, names));
+	}
+
+	/**
+	 * Same as the batch GET for lists too long for a query string
+	 */
+	@PostMapping("/batch")
+	public JavaScriptFrameworkBatchDTO batch(@RequestBody JavaScriptFrameworkBatchRequestDTO request) {
+		if (request.getIds().size() + request.getNames().size() > MAX_BATCH_SIZE) {
+			throw new JavascriptFrameworkInvalidRequestException("At most " + MAX_BATCH_SIZE + " frameworks can be read at once");
+		}
+		return service.findFrameworks(request.getIds(), request.getNames());
+	}
+
+	/**
+	 * Entire collection of frameworks as newline delimited JSON, written to the response as it is read from the database
+	 */
+	@GetMapping(produces = NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamFrameworks() {
+		ObjectWriter writer = objectMapper.writerFor(JavaScriptFrameworkDTO.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+		StreamingResponseBody body = outputStream -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				generator.setRootValueSeparator(null);
+
+				service.streamAllFrameworks(dto -> {
+					try {
+						writer.writeValue(generator, dto);
+						generator.writeRaw('\n');
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		};
+
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(NDJSON_VALUE))
+				.body(body);
+	}
+
+	/**
+	 * Server-sent events of the committed modifications instead of polling the frameworks, a reconnecting client
+	 * resumes after the {@code Last-Event-ID} it sends
+	 */
+	@GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+		return changeStream.subscribe(lastEventId);
 	}
 
 	@PostMapping
@@ -39,17 +183,87 @@ public class JavaScriptFrameworkController {
 		return service.createFramework(dto);
 	}
 
+	/**
+	 * Creates many frameworks at once from a JSON array or newline delimited JSON, the body is read as the import goes
+	 * @param upsert overwrite existing frameworks instead of reporting them as duplicates
+	 */
+	@PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+	public JavaScriptFrameworkImportResultDTO importFrameworks(InputStream body,
+															   @RequestParam(defaultValue = "false") boolean upsert) throws IOException {
+		try (MappingIterator<JavaScriptFrameworkDTO> frameworks = objectMapper.readerFor(JavaScriptFrameworkDTO.class).readValues(body)) {
+			return importService.importFrameworks(readStrictly(frameworks), upsert);
+		}
+	}
+
+	/**
+	 * Reports malformed input as a bad request, frameworks imported before it stay committed
+	 */
+	private static Iterator<JavaScriptFrameworkDTO> readStrictly(MappingIterator<JavaScriptFrameworkDTO> frameworks) {
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				try {
+					return frameworks.hasNextValue();
+				} catch (IOException e) {
+					throw new JavascriptFrameworkInvalidRequestException("Malformed framework: " + e.getMessage(), e);
+				}
+			}
+
+			@Override
+			public JavaScriptFrameworkDTO next() {
+				try {
+					return frameworks.nextValue();
+				} catch (IOException e) {
+					throw new JavascriptFrameworkInvalidRequestException("Malformed framework: " + e.getMessage(), e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Framework tagged by its revision, a conditional request for an unchanged framework is answered by 304
+	 * without loading and writing the framework
+	 */
 	@GetMapping("/{frameworkId}")
-	public JavaScriptFrameworkDTO getFramework(@PathParam("frameworkId") Long frameworkId) {
-		var framework = service.findFrameworkById(frameworkId);
+	public ResponseEntity<JavaScriptFrameworkDTO> getFramework(@PathVariable("frameworkId") Long frameworkId,
+															   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		if (ifNoneMatch != null) {
+			var etag = ETags.of(service.findRevision(frameworkId).orElseThrow(JavascriptFrameworkNotFoundException::new));
+			if (ETags.matches(ifNoneMatch, etag)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+			}
+		}
 
-		return framework.orElseThrow(JavascriptFrameworkNotFoundException::new);
+		var framework = service.findFrameworkById(frameworkId).orElseThrow(JavascriptFrameworkNotFoundException::new);
+		return ResponseEntity.ok()
+				.eTag(ETags.of(framework.getRevision()))
+				.body(framework);
 	}
 
+	/**
+	 * Updates the framework, with If-Match only if it still has one of the given revisions
+	 */
 	@PutMapping("/{frameworkId}")
-	@ResponseStatus(HttpStatus.NO_CONTENT)
-	public void updateFramework(@PathVariable("frameworkId") Long frameworkId, @RequestBody JavaScriptFrameworkDTO dto) {
-		service.update(frameworkId, dto);
+	public ResponseEntity<Void> updateFramework(@PathVariable("frameworkId") Long frameworkId, @RequestBody JavaScriptFrameworkDTO dto,
+												@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		var revision = service.update(frameworkId, dto, ETags.revisions(ifMatch));
+
+		return ResponseEntity.noContent()
+				.eTag(ETags.of(revision))
+				.build();
+	}
+
+	/**
+	 * Changes only the properties present in the JSON Merge Patch, with If-Match only if the framework still has one of the given revisions
+	 */
+	@PatchMapping(value = "/{frameworkId}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+	public ResponseEntity<Void> patchFramework(@PathVariable("frameworkId") Long frameworkId, @RequestBody @Valid JavaScriptFrameworkPatchDTO patch,
+											   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		var revision = service.patch(frameworkId, patch, ETags.revisions(ifMatch));
+
+		return ResponseEntity.noContent()
+				.eTag(ETags.of(revision))
+				.build();
 	}
 
 	@DeleteMapping("/{frameworkId}")
@@ -59,11 +273,19 @@ public class JavaScriptFrameworkController {
 	}
 
 	@GetMapping("/search")
-	public List<JavaScriptFrameworkDTO> searchFrameworks(@RequestParam(required = false) String name,
-														 @RequestParam(required = false) String version,
-														 @RequestParam(required = false) LocalDate deprecationDate,
-														 @RequestParam(required = false) HypeLevel hypeLevel) {
-		return service.search(name, version, deprecationDate, hypeLevel);
+	public JavaScriptFrameworkSearchResultDTO searchFrameworks(JavaScriptFrameworkSearchCriteria criteria,
+															   @PageableDefault(size = 20, sort = "id") Pageable pageable,
+															   @RequestParam(defaultValue = "false") boolean count) {
+		return service.search(criteria, pageable, count);
+	}
+
+	/**
+	 * Counts of the frameworks matching the search filters by hype level and deprecation year
+	 * and the frameworks with the most versions, instead of counting all the frameworks on the client
+	 */
+	@GetMapping("/stats")
+	public JavaScriptFrameworkStatsDTO stats(JavaScriptFrameworkSearchCriteria criteria) {
+		return service.stats(criteria);
 	}
 
 	@PostMapping("/{frameworkName}/versions/{version}")
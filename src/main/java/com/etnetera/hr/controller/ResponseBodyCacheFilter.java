@@ -0,0 +1,197 @@
+package com.etnetera.hr.controller;
+
+import com.etnetera.hr.routing.ReadYourWrites;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves repeated reads of the frameworks from the bytes written for the same request before, without reading
+ * and serializing the frameworks again.
+ * <p>
+ * A body is cached under the generation of the catalog, the path, the query parameters sorted by name and the Accept
+ * header. The generation moves on with every committed modification, so the bodies of the previous generation
+ * are never read again and just wait to be evicted. It is read before the body is, so a body is never older than
+ * its generation. A body reaching the compression threshold is gzipped once when it is cached
+ * and written as it is to the clients accepting gzip.
+ * <p>
+ * Conditional requests and clients reading their own writes from the primary bypass the cache.
+ */
+public class ResponseBodyCacheFilter extends OncePerRequestFilter {
+
+	private static final List<String> CACHED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY);
+
+	private static final String GZIP = "gzip";
+
+	private final Cache<String, Body> cache;
+
+	private final LongSupplier generation;
+
+	private final int gzipMinSize;
+
+	/**
+	 * @param generation number of the last committed modification
+	 * @param gzipMinSize size from which the bodies are gzipped, negative if they never are
+	 */
+	public ResponseBodyCacheFilter(LongSupplier generation, long maximumSize, Duration timeToLive, int gzipMinSize,
+								   MeterRegistry meterRegistry) {
+		this.generation = generation;
+		this.gzipMinSize = gzipMinSize;
+		this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+				.maximumWeight(maximumSize)
+				.weigher((String key, Body body) -> key.length() + body.size())
+				.expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS)
+				.recordStats()
+				.<String, Body>build(), "frameworks.responses");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!cacheable(request)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		var key = key(request);
+		var cached = cache.getIfPresent(key);
+		if (cached != null) {
+			write(cached, request, response);
+			return;
+		}
+		var wrapper = new ContentCachingResponseWrapper(response);
+
+		filterChain.doFilter(request, wrapper);
+
+		if (wrapper.getStatus() == HttpStatus.OK.value() && wrapper.getContentType() != null
+				&& wrapper.getHeader(HttpHeaders.CONTENT_ENCODING) == null) {
+			cache.put(key, body(wrapper));
+		}
+		wrapper.copyBodyToResponse();
+	}
+
+	private static boolean cacheable(HttpServletRequest request) {
+		if (!"GET".equals(request.getMethod())
+				|| request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+				|| request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null
+				|| WebUtils.getCookie(request, ReadYourWrites.COOKIE) != null) {
+			return false;
+		}
+		// streamed responses
+		var accept = request.getHeader(HttpHeaders.ACCEPT);
+		return accept == null || !(accept.contains(JavaScriptFrameworkController.NDJSON_VALUE) || accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE));
+	}
+
+	private String key(HttpServletRequest request) {
+		var parameters = new TreeMap<>(request.getParameterMap()).entrySet().stream()
+				.flatMap(parameter -> Arrays.stream(parameter.getValue()).map(value -> encode(parameter.getKey()) + "=" + encode(value)))
+				.collect(Collectors.joining("&"));
+		return generation.getAsLong() + " " + request.getRequestURI() + "?" + parameters + " " + request.getHeader(HttpHeaders.ACCEPT);
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+	private Body body(ContentCachingResponseWrapper response) throws IOException {
+		var headers = new LinkedHashMap<String, String>();
+		for (String name : CACHED_HEADERS) {
+			var value = response.getHeader(name);
+			if (value != null) {
+				headers.put(name, value);
+			}
+		}
+
+		var plain = response.getContentAsByteArray();
+		byte[] gzipped = null;
+		if (gzipMinSize >= 0 && plain.length >= gzipMinSize) {
+			var bytes = new ByteArrayOutputStream(plain.length / 4);
+			try (var out = new GZIPOutputStream(bytes)) {
+				out.write(plain);
+			}
+			gzipped = bytes.toByteArray();
+		}
+		return new Body(response.getContentType(), headers, plain, gzipped);
+	}
+
+	private static void write(Body body, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(body.contentType);
+		body.headers.forEach(response::setHeader);
+
+		var bytes = body.plain;
+		if (body.gzipped != null) {
+			response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			if (acceptsGzip(request)) {
+				// the container doesn't compress a response having an encoding already
+				response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+				bytes = body.gzipped;
+			}
+		}
+		response.setContentLength(bytes.length);
+		response.getOutputStream().write(bytes);
+	}
+
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		var acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			var parts = coding.split(";");
+			if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+				return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	private static final class Body {
+
+		private final String contentType;
+
+		private final Map<String, String> headers;
+
+		private final byte[] plain;
+
+		// null if the body is too small to be compressed
+		private final byte[] gzipped;
+
+		Body(String contentType, Map<String, String> headers, byte[] plain, byte[] gzipped) {
+			this.contentType = contentType;
+			this.headers = headers;
+			this.plain = plain;
+			this.gzipped = gzipped;
+		}
+
+		int size() {
+			return plain.length + (gzipped == null ? 0 : gzipped.length);
+		}
+	}
+}
@@ -1,27 +1,50 @@
 package com.etnetera.hr.data;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 /**
  * Simple data entity describing basic properties of every JavaScript framework.
+ * Updates write only the changed columns.
  * 
  * @author Etnetera
  *
  */
 @Entity
+@DynamicUpdate
+@Table(indexes = @Index(name = "idx_framework_search_name", columnList = "search_name"))
 public class JavaScriptFramework {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "java_script_framework_seq")
+	@SequenceGenerator(name = "java_script_framework_seq", sequenceName = "java_script_framework_seq", allocationSize = 50)
 	private Long id;
 
 	@Column(nullable = false, length = 30, unique = true)
 	private String name;
 
+	/**
+	 * Lower case copy of the name, indexed so that name searches don't have to apply lower() to every row
+	 */
+	@Column(name = "search_name", nullable = false, length = 30)
+	private String searchName;
+
+	/**
+	 * A version is unique within its framework, so that versions can be appended by a single insert
+	 */
 	@ElementCollection
+	@CollectionTable(name = "java_script_framework_version",
+			joinColumns = @JoinColumn(name = "java_script_framework_id"),
+			uniqueConstraints = @UniqueConstraint(name = "uk_framework_version", columnNames = {"java_script_framework_id", "version"}))
+	@Column(name = "version", nullable = false)
+	@BatchSize(size = 100)
 	private Set<String> version = new HashSet<>();
 
 	private LocalDate deprecationDate;
@@ -29,11 +52,26 @@ public class JavaScriptFramework {
 	@Enumerated(EnumType.STRING)
 	private HypeLevel hypeLevel = HypeLevel.NONE;
 
+	/**
+	 * Incremented by every update including changes of the versions, used for optimistic locking and as the ETag
+	 */
+	@Version
+	private Long revision;
+
+	/**
+	 * Number of the latest modification among the modifications of all frameworks, increases in the commit order
+	 */
+	@Column(name = "change_seq", nullable = false)
+	private long changeSeq;
+
+	@Column(name = "last_modified")
+	private Instant lastModified;
+
 	public JavaScriptFramework() {
 	}
 
 	public JavaScriptFramework(String name, Set<String> version, LocalDate deprecationDate, HypeLevel hypeLevel) {
-		this.name = name;
+		setName(name);
 		this.version = version;
 		this.deprecationDate = deprecationDate;
 		this.hypeLevel = hypeLevel;
@@ -54,6 +92,18 @@ public class JavaScriptFramework {
 
 	public void setName(String name) {
 		this.name = name;
+		this.searchName = normalizeName(name);
+	}
+
+	public String getSearchName() {
+		return searchName;
+	}
+
+	/**
+	 * Form of the name used by searches
+	 */
+	public static String normalizeName(String name) {
+		return name == null ? null : name.toLowerCase(Locale.ROOT);
 	}
 
 	public LocalDate getDeprecationDate() {
@@ -72,6 +122,20 @@ public class JavaScriptFramework {
 		this.version = version;
 	}
 
+	/**
+	 * Changes the versions in place, so that only the removed and added versions are deleted and inserted
+	 * instead of recreating the whole collection
+	 */
+	public void updateVersion(Set<String> newVersion) {
+		var target = newVersion == null ? Set.<String>of() : newVersion;
+		if (version == null) {
+			version = new HashSet<>(target);
+			return;
+		}
+		version.retainAll(target);
+		version.addAll(target);
+	}
+
 	public HypeLevel getHypeLevel() {
 		return hypeLevel;
 	}
@@ -80,6 +144,23 @@ public class JavaScriptFramework {
 		this.hypeLevel = hypeLevel;
 	}
 
+	public Long getRevision() {
+		return revision;
+	}
+
+	public long getChangeSeq() {
+		return changeSeq;
+	}
+
+	public Instant getLastModified() {
+		return lastModified;
+	}
+
+	public void markModified(long changeSeq, Instant lastModified) {
+		this.changeSeq = changeSeq;
+		this.lastModified = lastModified;
+	}
+
 	@Override
 	public String toString() {
 		return "JavaScriptFramework{" +
@@ -88,6 +169,8 @@ public class JavaScriptFramework {
 				", version='" + version + '\'' +
 				", deprecationDate=" + deprecationDate +
 				", hypeLevel=" + hypeLevel +
+				", revision=" + revision +
+				", changeSeq=" + changeSeq +
 				'}';
 	}
 }
@@ -0,0 +1,54 @@
+package com.etnetera.hr.data;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Record of a deleted framework, so that consumers synchronizing the changes learn about the delete
+ */
+@Entity
+@Table(name = "java_script_framework_tombstone")
+public class JavaScriptFrameworkTombstone {
+
+	@Id
+	@Column(name = "framework_id")
+	private Long frameworkId;
+
+	@Column(nullable = false, length = 30)
+	private String name;
+
+	@Column(name = "change_seq", nullable = false)
+	private long changeSeq;
+
+	@Column(name = "deleted_at", nullable = false)
+	private Instant deletedAt;
+
+	protected JavaScriptFrameworkTombstone() {
+	}
+
+	public JavaScriptFrameworkTombstone(Long frameworkId, String name, long changeSeq, Instant deletedAt) {
+		this.frameworkId = frameworkId;
+		this.name = name;
+		this.changeSeq = changeSeq;
+		this.deletedAt = deletedAt;
+	}
+
+	public Long getFrameworkId() {
+		return frameworkId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getChangeSeq() {
+		return changeSeq;
+	}
+
+	public Instant getDeletedAt() {
+		return deletedAt;
+	}
+}
@@ -0,0 +1,15 @@
+package com.etnetera.hr.data;
+
+/**
+ * How the name given to a search is matched against framework names, always case-insensitive
+ */
+public enum NameMatch {
+    /**
+     * Name contains the searched text anywhere
+     */
+    CONTAINS,
+    /**
+     * Name starts with the searched text, answered from the search name index
+     */
+    PREFIX
+}
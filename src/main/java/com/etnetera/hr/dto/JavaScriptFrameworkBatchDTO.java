@@ -0,0 +1,32 @@
+package com.etnetera.hr.dto;
+
+import java.util.List;
+
+/**
+ * Frameworks found by a batch read in the requested order, ids and names which don't exist are listed separately
+ */
+public class JavaScriptFrameworkBatchDTO {
+    private final List<JavaScriptFrameworkDTO> items;
+
+    private final List<Long> missingIds;
+
+    private final List<String> missingNames;
+
+    public JavaScriptFrameworkBatchDTO(List<JavaScriptFrameworkDTO> items, List<Long> missingIds, List<String> missingNames) {
+        this.items = items;
+        this.missingIds = missingIds;
+        this.missingNames = missingNames;
+    }
+
+    public List<JavaScriptFrameworkDTO> getItems() {
+        return items;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public List<String> getMissingNames() {
+        return missingNames;
+    }
+}
@@ -0,0 +1,34 @@
+package com.etnetera.hr.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Frameworks to be read at once, by id, by name or both
+ */
+public class JavaScriptFrameworkBatchRequestDTO {
+    private final Set<Long> ids;
+
+    private final Set<String> names;
+
+    /**
+     * Repeated ids and names are dropped, the order is kept
+     */
+    @JsonCreator
+    public JavaScriptFrameworkBatchRequestDTO(@JsonProperty("ids") List<Long> ids, @JsonProperty("names") List<String> names) {
+        this.ids = ids == null ? Set.of() : new LinkedHashSet<>(ids);
+        this.names = names == null ? Set.of() : new LinkedHashSet<>(names);
+    }
+
+    public Set<Long> getIds() {
+        return ids;
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+}
@@ -0,0 +1,57 @@
+package com.etnetera.hr.dto;
+
+/**
+ * Committed modification of a framework, sent to the subscribers of the change stream
+ */
+public class JavaScriptFrameworkChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    /**
+     * Number of the modification among the modifications of all frameworks, used to resume the stream
+     */
+    private final long id;
+
+    private final Type type;
+
+    private final Long frameworkId;
+
+    private final String name;
+
+    /**
+     * Revision of the framework after the change, null when it isn't known to the writer, e.g. for an added version
+     */
+    private final Long revision;
+
+    public JavaScriptFrameworkChangeEvent(long id, Type type, Long frameworkId, String name, Long revision) {
+        this.id = id;
+        this.type = type;
+        this.frameworkId = frameworkId;
+        this.name = name;
+        this.revision = revision;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getFrameworkId() {
+        return frameworkId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+}
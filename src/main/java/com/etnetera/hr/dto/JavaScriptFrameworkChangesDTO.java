@@ -0,0 +1,42 @@
+package com.etnetera.hr.dto;
+
+import java.util.List;
+
+/**
+ * Frameworks modified and deleted after a modification, in the order of the modifications
+ */
+public class JavaScriptFrameworkChangesDTO {
+    private final List<JavaScriptFrameworkDTO> items;
+
+    private final List<JavaScriptFrameworkTombstoneDTO> deleted;
+
+    /**
+     * Number of the last modification in the page, to be passed as {@code since} to fetch the following changes
+     */
+    private final long next;
+
+    private final boolean hasMore;
+
+    public JavaScriptFrameworkChangesDTO(List<JavaScriptFrameworkDTO> items, List<JavaScriptFrameworkTombstoneDTO> deleted, long next, boolean hasMore) {
+        this.items = items;
+        this.deleted = deleted;
+        this.next = next;
+        this.hasMore = hasMore;
+    }
+
+    public List<JavaScriptFrameworkDTO> getItems() {
+        return items;
+    }
+
+    public List<JavaScriptFrameworkTombstoneDTO> getDeleted() {
+        return deleted;
+    }
+
+    public long getNext() {
+        return next;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
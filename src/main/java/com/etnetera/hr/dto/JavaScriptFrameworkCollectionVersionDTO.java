@@ -0,0 +1,25 @@
+package com.etnetera.hr.dto;
+
+import java.time.Instant;
+
+/**
+ * Latest modification of the whole collection of frameworks
+ */
+public class JavaScriptFrameworkCollectionVersionDTO {
+    private final long changeSeq;
+
+    private final Instant lastModified;
+
+    public JavaScriptFrameworkCollectionVersionDTO(long changeSeq, Instant lastModified) {
+        this.changeSeq = changeSeq;
+        this.lastModified = lastModified;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+}
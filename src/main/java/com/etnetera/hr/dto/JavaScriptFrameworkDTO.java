@@ -2,10 +2,13 @@ package com.etnetera.hr.dto;
 
 import com.etnetera.hr.data.HypeLevel;
 import com.etnetera.hr.data.JavaScriptFramework;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.Set;
 
 public class JavaScriptFrameworkDTO {
@@ -21,16 +24,38 @@ public class JavaScriptFrameworkDTO {
 
     private final HypeLevel hypeLevel;
 
+    /**
+     * Revision of the framework when it was read, ignored on writes
+     */
+    private final Long revision;
+
     public JavaScriptFrameworkDTO(Long id, String name, Set<String> version, LocalDate deprecationDate, HypeLevel hypeLevel) {
+        this(id, name, version, deprecationDate, hypeLevel, null);
+    }
+
+    @JsonCreator
+    public JavaScriptFrameworkDTO(@JsonProperty("id") Long id, @JsonProperty("name") String name, @JsonProperty("version") Set<String> version,
+                                  @JsonProperty("deprecationDate") LocalDate deprecationDate, @JsonProperty("hypeLevel") HypeLevel hypeLevel,
+                                  @JsonProperty("revision") Long revision) {
         this.id = id;
         this.name = name;
         this.version = version;
         this.deprecationDate = deprecationDate;
         this.hypeLevel = hypeLevel;
+        this.revision = revision;
     }
 
+    /**
+     * Reads the entity without copying its versions, the dto holds a read-only view of them. Checking whether there
+     * are any loads them, so the dto stays usable once the persistence context is closed.
+     */
     public JavaScriptFrameworkDTO(JavaScriptFramework framework) {
-        this(framework.getId(), framework.getName(), framework.getVersion(), framework.getDeprecationDate(), framework.getHypeLevel());
+        this(framework.getId(), framework.getName(), readOnly(framework.getVersion()),
+                framework.getDeprecationDate(), framework.getHypeLevel(), framework.getRevision());
+    }
+
+    private static Set<String> readOnly(Set<String> versions) {
+        return versions == null || versions.isEmpty() ? Set.of() : Collections.unmodifiableSet(versions);
     }
 
     public Long getId() {
@@ -52,4 +77,8 @@ public class JavaScriptFrameworkDTO {
     public HypeLevel getHypeLevel() {
         return hypeLevel;
     }
+
+    public Long getRevision() {
+        return revision;
+    }
 }
@@ -0,0 +1,110 @@
+package com.etnetera.hr.dto;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes the frameworks field by field instead of through the bean properties, lists of thousands of frameworks
+ * are written without looking up a serializer for every value.
+ * <p>
+ * Field names and hype levels are written from constants encoded once. The output is the same as of the bean
+ * serialization, including the dates written as numbers with {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS}.
+ */
+@JsonComponent
+public class JavaScriptFrameworkDTOSerializer extends StdSerializer<JavaScriptFrameworkDTO> {
+
+    private static final SerializableString ID = new SerializedString("id");
+
+    private static final SerializableString NAME = new SerializedString("name");
+
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    private static final SerializableString DEPRECATION_DATE = new SerializedString("deprecationDate");
+
+    private static final SerializableString HYPE_LEVEL = new SerializedString("hypeLevel");
+
+    private static final SerializableString REVISION = new SerializedString("revision");
+
+    private static final SerializableString[] HYPE_LEVELS = new SerializableString[HypeLevel.values().length];
+
+    static {
+        for (HypeLevel hypeLevel : HypeLevel.values()) {
+            HYPE_LEVELS[hypeLevel.ordinal()] = new SerializedString(hypeLevel.name());
+        }
+    }
+
+    public JavaScriptFrameworkDTOSerializer() {
+        super(JavaScriptFrameworkDTO.class);
+    }
+
+    @Override
+    public void serialize(JavaScriptFrameworkDTO framework, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(framework);
+
+        generator.writeFieldName(ID);
+        writeNumber(generator, framework.getId());
+        generator.writeFieldName(NAME);
+        generator.writeString(framework.getName());
+
+        generator.writeFieldName(VERSION);
+        if (framework.getVersion() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray(framework.getVersion().size());
+            for (String version : framework.getVersion()) {
+                generator.writeString(version);
+            }
+            generator.writeEndArray();
+        }
+
+        generator.writeFieldName(DEPRECATION_DATE);
+        writeDate(generator, provider, framework.getDeprecationDate());
+
+        generator.writeFieldName(HYPE_LEVEL);
+        if (framework.getHypeLevel() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(HYPE_LEVELS[framework.getHypeLevel().ordinal()]);
+        }
+
+        generator.writeFieldName(REVISION);
+        writeNumber(generator, framework.getRevision());
+
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    /**
+     * Same as the LocalDate serializer of the Java time module without a custom format
+     */
+    private static void writeDate(JsonGenerator generator, SerializerProvider provider, LocalDate date) throws IOException {
+        if (date == null) {
+            generator.writeNull();
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            generator.writeStartArray(3);
+            generator.writeNumber(date.getYear());
+            generator.writeNumber(date.getMonthValue());
+            generator.writeNumber(date.getDayOfMonth());
+            generator.writeEndArray();
+        } else {
+            generator.writeString(date.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        }
+    }
+}
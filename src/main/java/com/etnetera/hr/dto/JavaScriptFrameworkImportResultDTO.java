@@ -0,0 +1,83 @@
+package com.etnetera.hr.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import, one item per imported framework in the order they were received
+ */
+public class JavaScriptFrameworkImportResultDTO {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+
+    public static class Item {
+        private final int index;
+
+        private final String name;
+
+        private final Status status;
+
+        private final Long id;
+
+        private final String message;
+
+        public Item(int index, String name, Status status, Long id, String message) {
+            this.index = index;
+            this.name = name;
+            this.status = status;
+            this.id = id;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final List<Item> items;
+
+    public JavaScriptFrameworkImportResultDTO(List<Item> items) {
+        this.items = items;
+    }
+
+    public long getCreated() {
+        return count(Status.CREATED);
+    }
+
+    public long getUpdated() {
+        return count(Status.UPDATED);
+    }
+
+    public long getFailed() {
+        return items.size() - getCreated() - getUpdated();
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    private long count(Status status) {
+        return items.stream().filter(item -> item.getStatus() == status).count();
+    }
+}
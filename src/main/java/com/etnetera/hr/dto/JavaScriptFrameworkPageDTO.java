@@ -0,0 +1,25 @@
+package com.etnetera.hr.dto;
+
+import java.util.List;
+
+public class JavaScriptFrameworkPageDTO {
+    private final List<JavaScriptFrameworkDTO> items;
+
+    /**
+     * Cursor to be passed as {@code after} to fetch the following page, null on the last page
+     */
+    private final Long next;
+
+    public JavaScriptFrameworkPageDTO(List<JavaScriptFrameworkDTO> items, Long next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<JavaScriptFrameworkDTO> getItems() {
+        return items;
+    }
+
+    public Long getNext() {
+        return next;
+    }
+}
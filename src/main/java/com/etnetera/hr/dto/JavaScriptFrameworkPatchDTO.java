@@ -0,0 +1,82 @@
+package com.etnetera.hr.dto;
+
+import com.etnetera.hr.data.HypeLevel;
+
+import javax.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * JSON Merge Patch of a framework, only the properties present in the document are changed.
+ * A property set to null is removed, the versions are replaced as a whole.
+ */
+public class JavaScriptFrameworkPatchDTO {
+    @Size(min = 1, max = 30)
+    private String name;
+
+    private Set<String> version;
+
+    private LocalDate deprecationDate;
+
+    private HypeLevel hypeLevel;
+
+    private boolean namePresent;
+
+    private boolean versionPresent;
+
+    private boolean deprecationDatePresent;
+
+    private boolean hypeLevelPresent;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.namePresent = true;
+    }
+
+    public boolean hasName() {
+        return namePresent;
+    }
+
+    public Set<String> getVersion() {
+        return version;
+    }
+
+    public void setVersion(Set<String> version) {
+        this.version = version;
+        this.versionPresent = true;
+    }
+
+    public boolean hasVersion() {
+        return versionPresent;
+    }
+
+    public LocalDate getDeprecationDate() {
+        return deprecationDate;
+    }
+
+    public void setDeprecationDate(LocalDate deprecationDate) {
+        this.deprecationDate = deprecationDate;
+        this.deprecationDatePresent = true;
+    }
+
+    public boolean hasDeprecationDate() {
+        return deprecationDatePresent;
+    }
+
+    public HypeLevel getHypeLevel() {
+        return hypeLevel;
+    }
+
+    public void setHypeLevel(HypeLevel hypeLevel) {
+        this.hypeLevel = hypeLevel;
+        this.hypeLevelPresent = true;
+    }
+
+    public boolean hasHypeLevel() {
+        return hypeLevelPresent;
+    }
+}
@@ -0,0 +1,130 @@
+package com.etnetera.hr.dto;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.NameMatch;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Search filters bound from the query parameters, all of them are optional and combined with AND.
+ * Multi-valued filters match a framework having any of the values.
+ */
+public class JavaScriptFrameworkSearchCriteria {
+    private String name;
+
+    private NameMatch nameMatch;
+
+    private Set<String> version;
+
+    private Set<HypeLevel> hypeLevel;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deprecationDate;
+
+    /**
+     * Exclusive upper bound of the deprecation date
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deprecatedBefore;
+
+    /**
+     * Exclusive lower bound of the deprecation date
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deprecatedAfter;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public NameMatch getNameMatch() {
+        return nameMatch;
+    }
+
+    public void setNameMatch(NameMatch nameMatch) {
+        this.nameMatch = nameMatch;
+    }
+
+    public Set<String> getVersion() {
+        return version;
+    }
+
+    public void setVersion(Set<String> version) {
+        this.version = version;
+    }
+
+    public Set<HypeLevel> getHypeLevel() {
+        return hypeLevel;
+    }
+
+    public void setHypeLevel(Set<HypeLevel> hypeLevel) {
+        this.hypeLevel = hypeLevel;
+    }
+
+    public LocalDate getDeprecationDate() {
+        return deprecationDate;
+    }
+
+    public void setDeprecationDate(LocalDate deprecationDate) {
+        this.deprecationDate = deprecationDate;
+    }
+
+    public LocalDate getDeprecatedBefore() {
+        return deprecatedBefore;
+    }
+
+    public void setDeprecatedBefore(LocalDate deprecatedBefore) {
+        this.deprecatedBefore = deprecatedBefore;
+    }
+
+    public LocalDate getDeprecatedAfter() {
+        return deprecatedAfter;
+    }
+
+    public void setDeprecatedAfter(LocalDate deprecatedAfter) {
+        this.deprecatedAfter = deprecatedAfter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JavaScriptFrameworkSearchCriteria that = (JavaScriptFrameworkSearchCriteria) o;
+        return Objects.equals(name, that.name) &&
+                nameMatch == that.nameMatch &&
+                Objects.equals(version, that.version) &&
+                Objects.equals(hypeLevel, that.hypeLevel) &&
+                Objects.equals(deprecationDate, that.deprecationDate) &&
+                Objects.equals(deprecatedBefore, that.deprecatedBefore) &&
+                Objects.equals(deprecatedAfter, that.deprecatedAfter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, nameMatch, version, hypeLevel, deprecationDate, deprecatedBefore, deprecatedAfter);
+    }
+
+    @Override
+    public String toString() {
+        return "JavaScriptFrameworkSearchCriteria{" +
+                "name='" + name + '\'' +
+                ", nameMatch=" + nameMatch +
+                ", version=" + version +
+                ", hypeLevel=" + hypeLevel +
+                ", deprecationDate=" + deprecationDate +
+                ", deprecatedBefore=" + deprecatedBefore +
+                ", deprecatedAfter=" + deprecatedAfter +
+                '}';
+    }
+}
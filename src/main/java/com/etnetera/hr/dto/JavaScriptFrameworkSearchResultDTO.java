@@ -0,0 +1,46 @@
+package com.etnetera.hr.dto;
+
+import java.util.List;
+
+public class JavaScriptFrameworkSearchResultDTO {
+    private final List<JavaScriptFrameworkDTO> items;
+
+    private final int page;
+
+    private final int size;
+
+    private final boolean hasNext;
+
+    /**
+     * Number of all matching frameworks, only counted when requested
+     */
+    private final Long total;
+
+    public JavaScriptFrameworkSearchResultDTO(List<JavaScriptFrameworkDTO> items, int page, int size, boolean hasNext, Long total) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.total = total;
+    }
+
+    public List<JavaScriptFrameworkDTO> getItems() {
+        return items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+}
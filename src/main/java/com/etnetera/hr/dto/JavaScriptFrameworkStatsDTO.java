@@ -0,0 +1,128 @@
+package com.etnetera.hr.dto;
+
+import com.etnetera.hr.data.HypeLevel;
+
+import java.util.List;
+
+/**
+ * Counts of the frameworks matching the search criteria, aggregated by the database
+ */
+public class JavaScriptFrameworkStatsDTO {
+    /**
+     * Last modification of the collection included in the counts
+     */
+    private final long changeSeq;
+
+    private final long total;
+
+    /**
+     * Ordered by the hype level, frameworks without one first
+     */
+    private final List<HypeLevelCount> byHypeLevel;
+
+    /**
+     * Ordered by the year, frameworks which aren't deprecated first
+     */
+    private final List<YearCount> byDeprecationYear;
+
+    /**
+     * Frameworks with the most versions, ties in the order of their ids
+     */
+    private final List<VersionCount> mostVersioned;
+
+    public JavaScriptFrameworkStatsDTO(long changeSeq, long total, List<HypeLevelCount> byHypeLevel, List<YearCount> byDeprecationYear,
+                                       List<VersionCount> mostVersioned) {
+        this.changeSeq = changeSeq;
+        this.total = total;
+        this.byHypeLevel = byHypeLevel;
+        this.byDeprecationYear = byDeprecationYear;
+        this.mostVersioned = mostVersioned;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public List<HypeLevelCount> getByHypeLevel() {
+        return byHypeLevel;
+    }
+
+    public List<YearCount> getByDeprecationYear() {
+        return byDeprecationYear;
+    }
+
+    public List<VersionCount> getMostVersioned() {
+        return mostVersioned;
+    }
+
+    public static class HypeLevelCount {
+        private final HypeLevel hypeLevel;
+
+        private final long count;
+
+        public HypeLevelCount(HypeLevel hypeLevel, long count) {
+            this.hypeLevel = hypeLevel;
+            this.count = count;
+        }
+
+        public HypeLevel getHypeLevel() {
+            return hypeLevel;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    public static class YearCount {
+        /**
+         * Null for the frameworks which aren't deprecated
+         */
+        private final Integer year;
+
+        private final long count;
+
+        public YearCount(Integer year, long count) {
+            this.year = year;
+            this.count = count;
+        }
+
+        public Integer getYear() {
+            return year;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    public static class VersionCount {
+        private final Long id;
+
+        private final String name;
+
+        private final long versions;
+
+        public VersionCount(Long id, String name, long versions) {
+            this.id = id;
+            this.name = name;
+            this.versions = versions;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getVersions() {
+            return versions;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.etnetera.hr.dto;
+
+import com.etnetera.hr.data.JavaScriptFrameworkTombstone;
+
+import java.time.Instant;
+
+public class JavaScriptFrameworkTombstoneDTO {
+    private final Long id;
+
+    private final String name;
+
+    private final Instant deletedAt;
+
+    public JavaScriptFrameworkTombstoneDTO(Long id, String name, Instant deletedAt) {
+        this.id = id;
+        this.name = name;
+        this.deletedAt = deletedAt;
+    }
+
+    public JavaScriptFrameworkTombstoneDTO(JavaScriptFrameworkTombstone tombstone) {
+        this(tombstone.getFrameworkId(), tombstone.getName(), tombstone.getDeletedAt());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -0,0 +1,16 @@
+package com.etnetera.hr.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class JavascriptFrameworkInvalidRequestException extends RuntimeException {
+
+    public JavascriptFrameworkInvalidRequestException(String message) {
+        super(message);
+    }
+
+    public JavascriptFrameworkInvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
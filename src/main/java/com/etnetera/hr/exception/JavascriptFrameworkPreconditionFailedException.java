@@ -0,0 +1,16 @@
+package com.etnetera.hr.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class JavascriptFrameworkPreconditionFailedException extends RuntimeException {
+
+    public JavascriptFrameworkPreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public JavascriptFrameworkPreconditionFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
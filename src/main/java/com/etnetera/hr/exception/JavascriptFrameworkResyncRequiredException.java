@@ -0,0 +1,15 @@
+package com.etnetera.hr.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The changes asked for are older than the kept tombstones, the client must read all the frameworks again
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class JavascriptFrameworkResyncRequiredException extends RuntimeException {
+
+    public JavascriptFrameworkResyncRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,108 @@
+package com.etnetera.hr.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every call of the framework repository as {@code frameworks.repository} and records the number of returned
+ * frameworks as {@code frameworks.repository.rows}. Calls slower than the threshold are logged.
+ * <p>
+ * Streaming methods are timed only until the stream is opened, their rows are not counted.
+ */
+@Aspect
+public class RepositoryMetricsAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryMetricsAspect.class);
+
+    /**
+     * Elements of a collection argument written to the log of a slow call
+     */
+    private static final int LOGGED_ELEMENTS = 3;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration slowQueryThreshold;
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry, Duration slowQueryThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Around("this(com.etnetera.hr.repository.JavaScriptFrameworkRepository)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        var method = joinPoint.getSignature().getName();
+        var exception = "none";
+        long start = System.nanoTime();
+        try {
+            var result = joinPoint.proceed();
+            recordRows(method, result);
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - start;
+            Timer.builder("frameworks.repository")
+                    .description("Framework repository calls")
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .register(meterRegistry)
+                    .record(duration, TimeUnit.NANOSECONDS);
+
+            if (duration > slowQueryThreshold.toNanos()) {
+                log.warn("Slow repository call {}({}) took {} ms", method, describe(joinPoint.getArgs()),
+                        TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+        }
+    }
+
+    /**
+     * Arguments of a call with only the size and the first few elements of collections, such as the thousands
+     * of frameworks of a bulk insert
+     */
+    private static String describe(Object[] args) {
+        return Arrays.stream(args)
+                .map(arg -> arg instanceof Collection ? describe((Collection<?>) arg) : String.valueOf(arg))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String describe(Collection<?> collection) {
+        var elements = collection.stream().limit(LOGGED_ELEMENTS).map(String::valueOf).collect(Collectors.joining(", "));
+        return collection.size() > LOGGED_ELEMENTS
+                ? collection.size() + " elements [" + elements + ", ...]"
+                : "[" + elements + "]";
+    }
+
+    private void recordRows(String method, Object result) {
+        int rows;
+        if (result instanceof Collection) {
+            rows = ((Collection<?>) result).size();
+        } else if (result instanceof Slice) {
+            rows = ((Slice<?>) result).getNumberOfElements();
+        } else if (result instanceof Optional) {
+            rows = ((Optional<?>) result).isPresent() ? 1 : 0;
+        } else {
+            return;
+        }
+
+        DistributionSummary.builder("frameworks.repository.rows")
+                .description("Frameworks returned by a repository call")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
@@ -0,0 +1,26 @@
+package com.etnetera.hr.repository;
+
+import java.time.Instant;
+
+/**
+ * State of the counter of all modifications
+ */
+public class JavaScriptFrameworkChangeCounter {
+
+    private final long seq;
+
+    private final Instant modifiedAt;
+
+    public JavaScriptFrameworkChangeCounter(long seq, Instant modifiedAt) {
+        this.seq = seq;
+        this.modifiedAt = modifiedAt;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Instant getModifiedAt() {
+        return modifiedAt;
+    }
+}
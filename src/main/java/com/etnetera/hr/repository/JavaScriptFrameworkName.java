@@ -0,0 +1,11 @@
+package com.etnetera.hr.repository;
+
+/**
+ * Projection of a framework to its id and name
+ */
+public interface JavaScriptFrameworkName {
+
+    Long getId();
+
+    String getName();
+}
@@ -1,10 +1,24 @@
 package com.etnetera.hr.repository;
 
 import com.etnetera.hr.data.JavaScriptFramework;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * Spring data repository interface used for accessing the data in database.
@@ -12,7 +26,82 @@ import java.util.Optional;
  * @author Etnetera
  *
  */
-public interface JavaScriptFrameworkRepository extends JpaRepository<JavaScriptFramework, Long>, JpaSpecificationExecutor<JavaScriptFramework> {
+public interface JavaScriptFrameworkRepository extends JpaRepository<JavaScriptFramework, Long>, JpaSpecificationExecutor<JavaScriptFramework>,
+        JavaScriptFrameworkRepositoryCustom {
+
+    /**
+     * Hibernate ignores an entity graph of the versions when looking the framework up by id, they are fetch joined
+     */
+    @Override
+    @Query("select f from JavaScriptFramework f left join fetch f.version where f.id = :id")
+    Optional<JavaScriptFramework> findById(@Param("id") Long id);
 
+    @EntityGraph(attributePaths = "version")
     Optional<JavaScriptFramework> findByName(String name);
+
+    /**
+     * Framework whose versions are loaded only once they are accessed
+     */
+    @Query("select f from JavaScriptFramework f where f.id = :id")
+    Optional<JavaScriptFramework> findWithoutVersionsById(@Param("id") Long id);
+
+    @Query("select f.id from JavaScriptFramework f where f.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    /**
+     * Appends a version without loading the versions of the framework
+     * @throws org.springframework.dao.DataIntegrityViolationException if the framework already has the version
+     */
+    @Modifying
+    @Query(value = "insert into java_script_framework_version (java_script_framework_id, version) values (:id, :version)", nativeQuery = true)
+    int insertVersion(@Param("id") Long id, @Param("version") String version);
+
+    /**
+     * Increments the revision of a framework modified by a bulk statement and records the modification,
+     * the framework may not be loaded in the persistence context
+     */
+    @Modifying
+    @Query("update JavaScriptFramework f set f.revision = f.revision + 1, f.changeSeq = :changeSeq, f.lastModified = :lastModified where f.id = :id")
+    int incrementRevision(@Param("id") Long id, @Param("changeSeq") long changeSeq, @Param("lastModified") Instant lastModified);
+
+    @Query("select f.revision from JavaScriptFramework f where f.id = :id")
+    Optional<Long> findRevisionById(@Param("id") Long id);
+
+    /**
+     * Frameworks modified after the given modification in the order of the modifications, versions are batch loaded
+     * @param pageable only the page size is used, the offset should always be zero
+     */
+    List<JavaScriptFramework> findByChangeSeqGreaterThanOrderByChangeSeqAsc(long changeSeq, Pageable pageable);
+
+    /**
+     * Answered from the unique index on name without loading the framework
+     */
+    boolean existsByName(String name);
+
+    /**
+     * Frameworks with the given names including their versions, a framework is repeated for each of its versions
+     */
+    @EntityGraph(attributePaths = "version")
+    List<JavaScriptFramework> findByNameIn(Collection<String> names);
+
+    /**
+     * Keyset page of frameworks ordered by id
+     * @param id exclusive lower bound of the page
+     * @param pageable only the page size is used, the offset should always be zero
+     */
+    List<JavaScriptFramework> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Streams all frameworks from a JDBC cursor, must be consumed inside of a transaction and closed afterwards
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select f from JavaScriptFramework f left join fetch f.version order by f.id")
+    Stream<JavaScriptFramework> streamAll();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select f.id as id, f.name as name from JavaScriptFramework f")
+    Stream<JavaScriptFrameworkName> streamNames();
 }
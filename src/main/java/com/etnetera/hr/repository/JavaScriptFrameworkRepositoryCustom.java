@@ -0,0 +1,72 @@
+package com.etnetera.hr.repository;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.JavaScriptFramework;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public interface JavaScriptFrameworkRepositoryCustom {
+
+    /**
+     * Page of frameworks matching the specification without counting all of the matches,
+     * whether there is a next page is found out by reading a single extra row
+     */
+    Slice<JavaScriptFramework> findSlice(Specification<JavaScriptFramework> specification, Pageable pageable);
+
+    /**
+     * Takes the next numbers of the modification counter, which stays locked until the current transaction ends.
+     * Must be called before the modified rows are written, so that all writers lock the counter first.
+     * <p>
+     * The single counter row serializes all the writers of all instances: a writer waits until the transaction
+     * which took the previous numbers commits, and a chunk of the bulk import holds the row while it writes
+     * all of its frameworks. This is what numbers the modifications in the order they commit, which the readers
+     * of the changes rely on to never skip one, so the numbers are not reserved in advance in a transaction
+     * of their own.
+     * @param count number of modifications
+     * @param modifiedAt time of the modifications
+     * @return first of the taken numbers
+     */
+    long nextChangeSeq(int count, Instant modifiedAt);
+
+    /**
+     * Number and time of the latest modification of any framework, including deletes
+     */
+    JavaScriptFrameworkChangeCounter findChangeCounter();
+
+    /**
+     * Removes the tombstones of frameworks deleted before the given time together with all the older tombstones,
+     * and records the number of the latest removed one, see {@link #findPrunedChangeSeq()}. The counter row
+     * is locked only by the last statement, right before the commit.
+     * @return number of the removed tombstones
+     */
+    int pruneTombstones(Instant deletedBefore);
+
+    /**
+     * Number of the latest modification whose tombstone may have been removed, 0 if none has been
+     */
+    long findPrunedChangeSeq();
+
+    /**
+     * Frameworks matching the specification counted by their hype level in a single GROUP BY
+     * @return counts ordered by the hype level, frameworks without one first under null
+     */
+    Map<HypeLevel, Long> countByHypeLevel(Specification<JavaScriptFramework> specification);
+
+    /**
+     * Frameworks matching the specification counted by the year of their deprecation in a single GROUP BY
+     * @return counts ordered by the year, frameworks which aren't deprecated first under null
+     */
+    Map<Integer, Long> countByDeprecationYear(Specification<JavaScriptFramework> specification);
+
+    /**
+     * Frameworks matching the specification with the most versions, frameworks without any version are left out
+     * @param limit maximum number of frameworks
+     * @return framework ids and names with their number of versions, ties in the order of the ids
+     */
+    List<JavaScriptFrameworkVersionCount> findMostVersioned(Specification<JavaScriptFramework> specification, int limit);
+}
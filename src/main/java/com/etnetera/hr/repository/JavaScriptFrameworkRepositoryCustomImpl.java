@@ -0,0 +1,157 @@
+package com.etnetera.hr.repository;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.JavaScriptFramework;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Root;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class JavaScriptFrameworkRepositoryCustomImpl implements JavaScriptFrameworkRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public JavaScriptFrameworkRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<JavaScriptFramework> findSlice(Specification<JavaScriptFramework> specification, Pageable pageable) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(JavaScriptFramework.class);
+        var root = query.from(JavaScriptFramework.class);
+        query.select(root);
+
+        var where = specification == null ? null : specification.toPredicate(root, query, criteriaBuilder);
+        if (where != null) {
+            query.where(where);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        var frameworks = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = frameworks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? frameworks.subList(0, pageable.getPageSize()) : frameworks, pageable, hasNext);
+    }
+
+    @Override
+    public long nextChangeSeq(int count, Instant modifiedAt) {
+        entityManager.createNativeQuery("update java_script_framework_change_counter set seq = seq + :count, modified_at = :modifiedAt where id = 1")
+                .setParameter("count", count)
+                .setParameter("modifiedAt", Timestamp.from(modifiedAt))
+                .executeUpdate();
+        var seq = (Number) entityManager.createNativeQuery("select seq from java_script_framework_change_counter where id = 1")
+                .getSingleResult();
+        return seq.longValue() - count + 1;
+    }
+
+    @Override
+    public JavaScriptFrameworkChangeCounter findChangeCounter() {
+        var row = (Object[]) entityManager.createNativeQuery("select seq, modified_at from java_script_framework_change_counter where id = 1")
+                .getSingleResult();
+        return new JavaScriptFrameworkChangeCounter(((Number) row[0]).longValue(), ((Timestamp) row[1]).toInstant());
+    }
+
+    @Override
+    public int pruneTombstones(Instant deletedBefore) {
+        var pruned = (Number) entityManager.createNativeQuery("select max(change_seq) from java_script_framework_tombstone where deleted_at < :deletedBefore")
+                .setParameter("deletedBefore", Timestamp.from(deletedBefore))
+                .getSingleResult();
+        if (pruned == null) {
+            return 0;
+        }
+        // by number rather than by time, so that exactly the tombstones up to the recorded number are gone
+        int removed = entityManager.createNativeQuery("delete from java_script_framework_tombstone where change_seq <= :seq")
+                .setParameter("seq", pruned.longValue())
+                .executeUpdate();
+        entityManager.createNativeQuery("update java_script_framework_change_counter set pruned_seq = :seq where id = 1 and pruned_seq < :seq")
+                .setParameter("seq", pruned.longValue())
+                .executeUpdate();
+        return removed;
+    }
+
+    @Override
+    public long findPrunedChangeSeq() {
+        var seq = (Number) entityManager.createNativeQuery("select pruned_seq from java_script_framework_change_counter where id = 1")
+                .getSingleResult();
+        return seq.longValue();
+    }
+
+    @Override
+    public Map<HypeLevel, Long> countByHypeLevel(Specification<JavaScriptFramework> specification) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(JavaScriptFramework.class);
+        Expression<HypeLevel> hypeLevel = root.get("hypeLevel");
+        query.multiselect(hypeLevel, criteriaBuilder.count(root)).groupBy(hypeLevel);
+        where(query, root, specification);
+
+        // enums are stored by name, so the database can't order them
+        var counts = new TreeMap<HypeLevel, Long>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        entityManager.createQuery(query).getResultList()
+                .forEach(row -> counts.put(row.get(0, HypeLevel.class), row.get(1, Long.class)));
+        return counts;
+    }
+
+    @Override
+    public Map<Integer, Long> countByDeprecationYear(Specification<JavaScriptFramework> specification) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(JavaScriptFramework.class);
+        // extract(year from ...) in every dialect
+        var year = criteriaBuilder.function("year", Integer.class, root.get("deprecationDate"));
+        query.multiselect(year, criteriaBuilder.count(root)).groupBy(year);
+        where(query, root, specification);
+
+        // nulls are ordered differently by the databases
+        var counts = new TreeMap<Integer, Long>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        entityManager.createQuery(query).getResultList()
+                .forEach(row -> counts.put(row.get(0) == null ? null : ((Number) row.get(0)).intValue(), row.get(1, Long.class)));
+        return counts;
+    }
+
+    @Override
+    public List<JavaScriptFrameworkVersionCount> findMostVersioned(Specification<JavaScriptFramework> specification, int limit) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(JavaScriptFramework.class);
+        root.joinSet("version");
+        // a row per version of the framework
+        var versions = criteriaBuilder.count(root);
+        query.multiselect(root.get("id"), root.get("name"), versions)
+                .groupBy(root.get("id"), root.get("name"))
+                .orderBy(criteriaBuilder.desc(versions), criteriaBuilder.asc(root.get("id")));
+        where(query, root, specification);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(row -> new JavaScriptFrameworkVersionCount(row.get(0, Long.class), row.get(1, String.class), row.get(2, Long.class)))
+                .collect(Collectors.toList());
+    }
+
+    private void where(CriteriaQuery<?> query, Root<JavaScriptFramework> root, Specification<JavaScriptFramework> specification) {
+        var where = specification == null ? null : specification.toPredicate(root, query, entityManager.getCriteriaBuilder());
+        if (where != null) {
+            query.where(where);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.etnetera.hr.repository;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.data.NameMatch;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.SetJoin;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Search conditions on frameworks, every factory method returns null for a missing value so they can be freely combined
+ */
+public final class JavaScriptFrameworkSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private JavaScriptFrameworkSpecifications() {
+    }
+
+    /**
+     * Case-insensitive name match on the normalized search name.
+     * A prefix match is a range scan of the search name index, a contains match has to scan all names.
+     */
+    public static Specification<JavaScriptFramework> nameMatches(String name, NameMatch match) {
+        if (name == null) {
+            return null;
+        }
+        var escaped = escapeLike(JavaScriptFramework.normalizeName(name));
+        var pattern = match == NameMatch.PREFIX ? escaped + '%' : '%' + escaped + '%';
+
+        return (root, query, criteriaBuilder) -> criteriaBuilder.like(root.get("searchName"), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<JavaScriptFramework> idIn(Collection<Long> ids) {
+        if (ids == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    public static Specification<JavaScriptFramework> nameIn(Collection<String> names) {
+        if (names == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> root.get("name").in(names);
+    }
+
+    /**
+     * Frameworks having any of the versions. The versions are matched in an EXISTS subquery,
+     * so the frameworks are neither repeated nor need a DISTINCT however many versions they have.
+     */
+    public static Specification<JavaScriptFramework> hasAnyVersion(Collection<String> versions) {
+        if (versions == null || versions.isEmpty()) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> {
+            Subquery<String> subquery = query.subquery(String.class);
+            SetJoin<JavaScriptFramework, String> version = subquery.correlate(root).joinSet("version");
+            subquery.select(version).where(version.in(versions));
+            return criteriaBuilder.exists(subquery);
+        };
+    }
+
+    public static Specification<JavaScriptFramework> deprecatedOn(LocalDate deprecationDate) {
+        if (deprecationDate == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("deprecationDate"), deprecationDate);
+    }
+
+    public static Specification<JavaScriptFramework> deprecatedBefore(LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get("deprecationDate"), date);
+    }
+
+    public static Specification<JavaScriptFramework> deprecatedAfter(LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("deprecationDate"), date);
+    }
+
+    public static Specification<JavaScriptFramework> hasAnyHypeLevel(Collection<HypeLevel> hypeLevels) {
+        if (hypeLevels == null || hypeLevels.isEmpty()) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> root.get("hypeLevel").in(hypeLevels);
+    }
+
+    /**
+     * All the conditions of the criteria in a single specification
+     */
+    public static Specification<JavaScriptFramework> matching(JavaScriptFrameworkSearchCriteria criteria) {
+        return Specification.where(nameMatches(criteria.getName(), criteria.getNameMatch() == null ? NameMatch.CONTAINS : criteria.getNameMatch()))
+                .and(hasAnyVersion(criteria.getVersion()))
+                .and(deprecatedOn(criteria.getDeprecationDate()))
+                .and(deprecatedBefore(criteria.getDeprecatedBefore()))
+                .and(deprecatedAfter(criteria.getDeprecatedAfter()))
+                .and(hasAnyHypeLevel(criteria.getHypeLevel()));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,16 @@
+package com.etnetera.hr.repository;
+
+import com.etnetera.hr.data.JavaScriptFrameworkTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface JavaScriptFrameworkTombstoneRepository extends JpaRepository<JavaScriptFrameworkTombstone, Long> {
+
+    /**
+     * Deletes after the given modification in the order of the modifications
+     * @param pageable only the page size is used, the offset should always be zero
+     */
+    List<JavaScriptFrameworkTombstone> findByChangeSeqGreaterThanOrderByChangeSeqAsc(long changeSeq, Pageable pageable);
+}
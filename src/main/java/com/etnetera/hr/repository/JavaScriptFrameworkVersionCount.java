@@ -0,0 +1,31 @@
+package com.etnetera.hr.repository;
+
+/**
+ * Framework with its number of versions
+ */
+public class JavaScriptFrameworkVersionCount {
+
+    private final Long id;
+
+    private final String name;
+
+    private final long versions;
+
+    public JavaScriptFrameworkVersionCount(Long id, String name, long versions) {
+        this.id = id;
+        this.name = name;
+        this.versions = versions;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getVersions() {
+        return versions;
+    }
+}
@@ -0,0 +1,30 @@
+package com.etnetera.hr.routing;
+
+/**
+ * Marks the current thread as handling a request of a client which has recently written,
+ * its reads go to the primary until the replica has caught up
+ */
+public final class ReadYourWrites {
+
+    /**
+     * Cookie with the time in epoch milliseconds until which the reads of the client go to the primary
+     */
+    public static final String COOKIE = "frameworks-read-primary";
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void begin() {
+        ACTIVE.set(Boolean.TRUE);
+    }
+
+    public static void end() {
+        ACTIVE.remove();
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
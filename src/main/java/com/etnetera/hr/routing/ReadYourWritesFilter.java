@@ -0,0 +1,113 @@
+package com.etnetera.hr.routing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Gives a client whose modification succeeded the {@link ReadYourWrites#COOKIE}, a failed one doesn't route
+ * the reads of the client to the primary.
+ * <p>
+ * The handler commits the response while writing it, so the cookie is added when the body starts being written,
+ * by then the status is known. The body is passed through as it is written, including the report of a bulk import.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final Duration window;
+
+    private final Clock clock;
+
+    public ReadYourWritesFilter(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !WRITE_METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var cookieResponse = new CookieResponse(response);
+        filterChain.doFilter(request, cookieResponse);
+        // a response without a body
+        cookieResponse.addCookie();
+    }
+
+    /**
+     * Adds the cookie once before the response is committed, unless an error has been sent
+     */
+    private final class CookieResponse extends HttpServletResponseWrapper {
+
+        private boolean added;
+
+        CookieResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void addCookie() {
+            if (added || isCommitted()) {
+                return;
+            }
+            added = true;
+            if (getStatus() / 100 == 2) {
+                var cookie = new Cookie(ReadYourWrites.COOKIE, String.valueOf(clock.millis() + window.toMillis()));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, window.plusMillis(999).getSeconds()));
+                addCookie(cookie);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addCookie();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addCookie();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addCookie();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            added = true;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            added = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            added = true;
+            super.sendRedirect(location);
+        }
+    }
+}
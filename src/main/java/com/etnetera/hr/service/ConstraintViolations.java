@@ -0,0 +1,40 @@
+package com.etnetera.hr.service;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Recognizes constraint violations reported by the database regardless of the vendor
+ */
+final class ConstraintViolations {
+
+    /**
+     * SQL state of a unique constraint violation, shared by H2 and PostgreSQL
+     */
+    private static final Set<String> UNIQUE_VIOLATION = Set.of("23505");
+
+    /**
+     * SQL states of a foreign key violation, PostgreSQL reports 23503 and H2 a missing parent as 23506
+     */
+    private static final Set<String> FOREIGN_KEY_VIOLATIONS = Set.of("23503", "23506");
+
+    private ConstraintViolations() {
+    }
+
+    static boolean isUniqueViolation(Throwable exception) {
+        return hasSqlState(exception, UNIQUE_VIOLATION);
+    }
+
+    static boolean isForeignKeyViolation(Throwable exception) {
+        return hasSqlState(exception, FOREIGN_KEY_VIOLATIONS);
+    }
+
+    private static boolean hasSqlState(Throwable exception, Set<String> states) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && states.contains(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
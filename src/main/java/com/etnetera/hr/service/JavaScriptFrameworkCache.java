@@ -0,0 +1,117 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.config.FrameworkProperties;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.routing.ReadYourWrites;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of frameworks keyed by id and by name.
+ * Only existing frameworks are cached, hit/miss/eviction counters are published as {@code cache.*} metrics.
+ * <p>
+ * With the replica enabled the cache is filled only by reads going to the primary, i.e. reads of a client
+ * which has recently written. A framework read from the replica may be older than a write which has already
+ * evicted it, so it's returned without being cached.
+ */
+@Component
+public class JavaScriptFrameworkCache {
+
+    private final Cache<Long, JavaScriptFrameworkDTO> byId;
+
+    private final Cache<String, JavaScriptFrameworkDTO> byName;
+
+    private final boolean replicaReads;
+
+    public JavaScriptFrameworkCache(FrameworkProperties properties, MeterRegistry meterRegistry) {
+        this.replicaReads = properties.getReplica().isEnabled();
+        this.byId = CaffeineCacheMetrics.monitor(meterRegistry, JavaScriptFrameworkCache.<Long>newCache(properties.getCache()), "frameworks.byId");
+        this.byName = CaffeineCacheMetrics.monitor(meterRegistry, JavaScriptFrameworkCache.<String>newCache(properties.getCache()), "frameworks.byName");
+    }
+
+    private static <K> Cache<K, JavaScriptFrameworkDTO> newCache(FrameworkProperties.Cache config) {
+        return Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTimeToLive().toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Framework by id, a framework loaded from the database is cached under its name as well
+     */
+    public Optional<JavaScriptFrameworkDTO> getById(Long id, Function<Long, Optional<JavaScriptFrameworkDTO>> loader) {
+        if (!readsPrimary()) {
+            return peekById(id).or(() -> loader.apply(id));
+        }
+        return Optional.ofNullable(byId.get(id, key -> {
+            var framework = loader.apply(key).orElse(null);
+            if (framework != null) {
+                byName.put(framework.getName(), framework);
+            }
+            return framework;
+        }));
+    }
+
+    public Optional<JavaScriptFrameworkDTO> getByName(String name, Function<String, Optional<JavaScriptFrameworkDTO>> loader) {
+        if (!readsPrimary()) {
+            return peekByName(name).or(() -> loader.apply(name));
+        }
+        return Optional.ofNullable(byName.get(name, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Cached framework without falling back to the database
+     */
+    public Optional<JavaScriptFrameworkDTO> peekById(Long id) {
+        return Optional.ofNullable(byId.getIfPresent(id));
+    }
+
+    /**
+     * Cached framework without falling back to the database
+     */
+    public Optional<JavaScriptFrameworkDTO> peekByName(String name) {
+        return Optional.ofNullable(byName.getIfPresent(name));
+    }
+
+    /**
+     * Evicts the framework right away and once more after the current transaction commits,
+     * so that a read running concurrently with the write can't cache the state from before the commit
+     * @param id of the modified framework, may be null
+     * @param names every name the framework had before and after the modification
+     */
+    public void evict(Long id, String... names) {
+        doEvict(id, names);
+        TransactionCallbacks.afterCommit(() -> doEvict(id, names));
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byName.invalidateAll();
+    }
+
+    /**
+     * Whether a read outside of a read-write transaction goes to the primary
+     */
+    private boolean readsPrimary() {
+        return !replicaReads || ReadYourWrites.isActive();
+    }
+
+    private void doEvict(Long id, String... names) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        for (String name : names) {
+            if (name != null) {
+                byName.invalidate(name);
+            }
+        }
+    }
+}
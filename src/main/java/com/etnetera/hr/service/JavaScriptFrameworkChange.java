@@ -0,0 +1,73 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.data.JavaScriptFrameworkTombstone;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+
+/**
+ * Modification read from the change log, the current state of a modified framework or the tombstone of a deleted one
+ */
+final class JavaScriptFrameworkChange {
+
+    private final long changeSeq;
+
+    private final Long frameworkId;
+
+    private final String name;
+
+    private final Long revision;
+
+    // null for a deleted framework
+    private final JavaScriptFrameworkDTO framework;
+
+    private JavaScriptFrameworkChange(long changeSeq, Long frameworkId, String name, Long revision, JavaScriptFrameworkDTO framework) {
+        this.changeSeq = changeSeq;
+        this.frameworkId = frameworkId;
+        this.name = name;
+        this.revision = revision;
+        this.framework = framework;
+    }
+
+    static JavaScriptFrameworkChange modified(JavaScriptFramework framework) {
+        return new JavaScriptFrameworkChange(framework.getChangeSeq(), framework.getId(), framework.getName(), framework.getRevision(),
+                new JavaScriptFrameworkDTO(framework));
+    }
+
+    static JavaScriptFrameworkChange deleted(JavaScriptFrameworkTombstone tombstone) {
+        return new JavaScriptFrameworkChange(tombstone.getChangeSeq(), tombstone.getFrameworkId(), tombstone.getName(), null, null);
+    }
+
+    long getChangeSeq() {
+        return changeSeq;
+    }
+
+    Long getFrameworkId() {
+        return frameworkId;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Long getRevision() {
+        return revision;
+    }
+
+    boolean isDeleted() {
+        return framework == null;
+    }
+
+    /**
+     * A framework not modified since it was created still has its first revision
+     */
+    boolean isCreated() {
+        return revision != null && revision == 0;
+    }
+
+    /**
+     * @return null for a deleted framework
+     */
+    JavaScriptFrameworkDTO getFramework() {
+        return framework;
+    }
+}
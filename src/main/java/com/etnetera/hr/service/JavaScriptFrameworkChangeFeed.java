@@ -0,0 +1,278 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.config.FrameworkProperties;
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.data.JavaScriptFrameworkTombstone;
+import com.etnetera.hr.dto.JavaScriptFrameworkCollectionVersionDTO;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import com.etnetera.hr.repository.JavaScriptFrameworkTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Tails the change log of all instances and hands the modifications over to the in-memory copies of the frameworks.
+ * <p>
+ * Every {@code frameworks.changes.poll-interval} the change counter is read, and when it has moved the frameworks and
+ * tombstones numbered up to it are read in the order of their numbers. Modifications are numbered in the order they
+ * commit, see {@link com.etnetera.hr.repository.JavaScriptFrameworkRepositoryCustom#nextChangeSeq(int, java.time.Instant)},
+ * so everything up to the counter has been committed and no modification is skipped. A framework modified several
+ * times since the previous poll is read once in its current state. Writes of this instance are polled right after
+ * they commit, on the thread of the feed, so the listeners are never run by a writer.
+ */
+@Component
+public class JavaScriptFrameworkChangeFeed implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JavaScriptFrameworkChangeFeed.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final JavaScriptFrameworkRepository repository;
+
+    private final JavaScriptFrameworkTombstoneRepository tombstoneRepository;
+
+    private final EntityManager entityManager;
+
+    // not read-only, so that the primary is read when reads are routed to a replica
+    private final TransactionTemplate transaction;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final boolean replica;
+
+    private final ScheduledExecutorService poller;
+
+    private final long pollInterval;
+
+    private final AtomicBoolean pollRequested = new AtomicBoolean();
+
+    /**
+     * Number of the latest modification committed by this instance
+     */
+    private final AtomicLong committedSeq = new AtomicLong();
+
+    /**
+     * Number of the latest modification seen by the reads of the database, see {@link #readableChangeSeq()}
+     */
+    private final AtomicLong readableSeq = new AtomicLong();
+
+    /**
+     * Number of the latest modification handed over to the listeners
+     */
+    private volatile long changeSeq;
+
+    public JavaScriptFrameworkChangeFeed(JavaScriptFrameworkRepository repository, JavaScriptFrameworkTombstoneRepository tombstoneRepository,
+                                         EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                         FrameworkProperties properties) {
+        this.repository = repository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.replica = properties.getReplica().isEnabled();
+        this.pollInterval = properties.getChanges().getPollInterval().toMillis();
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "framework-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Listeners are called by one thread at a time in the order they were added. A listener may get modifications
+     * it has already read when it loaded its copy, those are the ones numbered up to the number it loaded.
+     */
+    void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts from the current modification before the listeners load their copies, so they never start before the feed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        changeSeq = transaction.execute(status -> repository.findChangeCounter().getSeq());
+        advanceReadable(changeSeq);
+        poller.scheduleWithFixedDelay(this::pollQuietly, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Polls once the current transaction commits, a rolled back modification is left to the periodic poll
+     * @param changeSeq number of the committed modification
+     */
+    public void pollAfterCommit(long changeSeq) {
+        TransactionCallbacks.afterCommit(() -> {
+            committedSeq.accumulateAndGet(changeSeq, Math::max);
+            if (!replica) {
+                readableSeq.accumulateAndGet(changeSeq, Math::max);
+            }
+            // all the commits made until the poll starts are read by it
+            if (pollRequested.compareAndSet(false, true)) {
+                try {
+                    poller.execute(() -> {
+                        pollRequested.set(false);
+                        pollCommitted();
+                    });
+                } catch (RejectedExecutionException e) {
+                    // shutting down
+                }
+            }
+        });
+    }
+
+    private synchronized void pollCommitted() {
+        if (committedSeq.get() > changeSeq) {
+            pollQuietly();
+        }
+    }
+
+    /**
+     * Hands the modifications committed since the previous poll over to the listeners
+     */
+    public synchronized void poll() {
+        var polled = transaction.execute(status -> {
+            var counter = repository.findChangeCounter();
+            var changes = counter.getSeq() > changeSeq ? readUpTo(counter.getSeq()) : List.<JavaScriptFrameworkChange>of();
+            return new Polled(changes, new JavaScriptFrameworkCollectionVersionDTO(counter.getSeq(), counter.getModifiedAt()));
+        });
+
+        if (polled.version.getChangeSeq() > changeSeq) {
+            for (var listener : listeners) {
+                try {
+                    listener.onChanges(polled.changes, polled.version);
+                } catch (RuntimeException e) {
+                    log.warn("Framework changes up to {} could not be applied by {}", polled.version.getChangeSeq(), listener, e);
+                }
+            }
+            changeSeq = polled.version.getChangeSeq();
+        }
+        // a replica may catch up without anything new on the primary
+        advanceReadable(changeSeq);
+    }
+
+    /**
+     * Number of the latest modification the reads of the database see, kept in memory so that it can be read
+     * by every request. Without a replica it's advanced by the commits of this instance and by the polls, which
+     * see the commits of the other ones. With a replica it's read from the replica by every poll, so it never
+     * gets ahead of a lagging replica.
+     */
+    public long readableChangeSeq() {
+        return readableSeq.get();
+    }
+
+    private void advanceReadable(long primarySeq) {
+        if (!replica) {
+            readableSeq.accumulateAndGet(primarySeq, Math::max);
+            return;
+        }
+        try {
+            long replicaSeq = readOnlyTransaction.execute(status -> repository.findChangeCounter().getSeq());
+            readableSeq.accumulateAndGet(replicaSeq, Math::max);
+        } catch (RuntimeException e) {
+            // the next poll reads it again
+            log.warn("Change counter of the replica could not be read", e);
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            // the next poll starts from the same modification
+            log.warn("Poll of the framework changes failed", e);
+        }
+    }
+
+    private List<JavaScriptFrameworkChange> readUpTo(long upTo) {
+        var changes = new ArrayList<JavaScriptFrameworkChange>();
+        readPages(upTo, repository::findByChangeSeqGreaterThanOrderByChangeSeqAsc, JavaScriptFramework::getChangeSeq,
+                framework -> changes.add(JavaScriptFrameworkChange.modified(framework)));
+        readPages(upTo, tombstoneRepository::findByChangeSeqGreaterThanOrderByChangeSeqAsc, JavaScriptFrameworkTombstone::getChangeSeq,
+                tombstone -> changes.add(JavaScriptFrameworkChange.deleted(tombstone)));
+        changes.sort(Comparator.comparingLong(JavaScriptFrameworkChange::getChangeSeq));
+        return changes;
+    }
+
+    private <T> void readPages(long upTo, PageReader<T> reader, ToLongFunction<T> seqOf, Consumer<T> consumer) {
+        long since = changeSeq;
+        List<T> page;
+        do {
+            page = reader.read(since, PageRequest.of(0, PAGE_SIZE));
+            for (T item : page) {
+                since = seqOf.applyAsLong(item);
+                if (since > upTo) {
+                    // committed after the counter was read, the next poll reads it with the modifications before it
+                    return;
+                }
+                consumer.accept(item);
+            }
+            entityManager.clear();
+        } while (page.size() == PAGE_SIZE);
+    }
+
+    long getChangeSeq() {
+        return changeSeq;
+    }
+
+    @Override
+    public void destroy() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * In-memory copy of the frameworks kept up to date by the feed
+     */
+    interface Listener {
+
+        /**
+         * @param changes modifications committed since the previous poll in the order of their numbers
+         * @param version number and time of the latest modification of the collection, the last of the changes
+         *                unless the latest ones were skipped by the import
+         */
+        void onChanges(List<JavaScriptFrameworkChange> changes, JavaScriptFrameworkCollectionVersionDTO version);
+    }
+
+    private static final class Polled {
+
+        private final List<JavaScriptFrameworkChange> changes;
+
+        private final JavaScriptFrameworkCollectionVersionDTO version;
+
+        Polled(List<JavaScriptFrameworkChange> changes, JavaScriptFrameworkCollectionVersionDTO version) {
+            this.changes = changes;
+            this.version = version;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageReader<T> {
+        List<T> read(long since, Pageable pageable);
+    }
+}
@@ -0,0 +1,374 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.config.FrameworkProperties;
+import com.etnetera.hr.dto.JavaScriptFrameworkChangeEvent;
+import com.etnetera.hr.dto.JavaScriptFrameworkCollectionVersionDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkChangeEvent.Type;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import com.etnetera.hr.repository.JavaScriptFrameworkTombstoneRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent events of committed framework modifications.
+ * <p>
+ * The events are the modifications read by the {@link JavaScriptFrameworkChangeFeed} from the change log of all
+ * instances, in the order of their numbers. A framework modified several times between two polls is sent once
+ * in its current state, a framework not modified since it was created as {@link Type#CREATED}.
+ * <p>
+ * The feed only hands the events over to the subscribers, they are written by {@code frameworks.events.dispatch-threads}
+ * dispatcher threads, one task per subscriber at a time. A subscriber whose buffer is full, or whose write blocks
+ * longer than {@code frameworks.events.send-timeout}, is disconnected. A blocked write holds its thread until the
+ * container gives up on it, the other subscribers are written to by the remaining threads meanwhile.
+ * <p>
+ * The id of an event is the number of its modification, see
+ * {@link com.etnetera.hr.repository.JavaScriptFrameworkRepositoryCustom#nextChangeSeq(int, java.time.Instant)},
+ * so it means the same on every instance and after a restart. A resumed subscriber first gets the modifications
+ * committed since its last event, read from the change log, then the events polled after them.
+ */
+@Component
+public class JavaScriptFrameworkChangeStream implements JavaScriptFrameworkChangeFeed.Listener, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JavaScriptFrameworkChangeStream.class);
+
+    static final String CHANGE_EVENT = "change";
+
+    /**
+     * Sent instead of the events a resumed subscriber has missed, it has to read the frameworks again
+     */
+    static final String RESET_EVENT = "reset";
+
+    private static final Object RESET = new Object();
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final JavaScriptFrameworkRepository repository;
+
+    private final JavaScriptFrameworkTombstoneRepository tombstoneRepository;
+
+    private final TransactionTemplate transaction;
+
+    private final ExecutorService dispatcher;
+
+    private final ScheduledExecutorService heartbeats;
+
+    private final int historySize;
+
+    private final int subscriberBuffer;
+
+    private final long timeout;
+
+    private final long sendTimeout;
+
+    public JavaScriptFrameworkChangeStream(JavaScriptFrameworkRepository repository, JavaScriptFrameworkTombstoneRepository tombstoneRepository,
+                                           PlatformTransactionManager transactionManager, JavaScriptFrameworkChangeFeed changeFeed,
+                                           FrameworkProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.tombstoneRepository = tombstoneRepository;
+        // not read-only, a lagging replica could miss modifications the subscriber then gets no event of
+        this.transaction = new TransactionTemplate(transactionManager);
+
+        var events = properties.getEvents();
+        this.historySize = events.getHistorySize();
+        this.subscriberBuffer = events.getSubscriberBuffer();
+        this.timeout = events.getTimeout().toMillis();
+        this.sendTimeout = events.getSendTimeout().toNanos();
+
+        var threads = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            var thread = new Thread(runnable, "framework-events-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // every subscriber has at most one task queued or running, so the queue is bounded by the subscribers
+        this.dispatcher = Executors.newFixedThreadPool(events.getDispatchThreads(), threadFactory);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long heartbeat = events.getHeartbeat().toMillis();
+        heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::heartbeat), heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+        long sendCheck = Math.max(1, events.getSendTimeout().toMillis() / 2);
+        heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::checkSend), sendCheck, sendCheck, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("frameworks.events.subscribers", subscribers, Set::size)
+                .description("Connected subscribers of the framework change stream")
+                .register(meterRegistry);
+
+        changeFeed.addListener(this);
+    }
+
+    /**
+     * Hands the polled modifications over to the subscribers
+     */
+    @Override
+    public void onChanges(List<JavaScriptFrameworkChange> changes, JavaScriptFrameworkCollectionVersionDTO version) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (var change : changes) {
+            var event = event(change, change.isDeleted() ? Type.DELETED : change.isCreated() ? Type.CREATED : Type.UPDATED);
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    private static JavaScriptFrameworkChangeEvent event(JavaScriptFrameworkChange change, Type type) {
+        return new JavaScriptFrameworkChangeEvent(change.getChangeSeq(), type, change.getFrameworkId(), change.getName(), change.getRevision());
+    }
+
+    /**
+     * @param lastEventId id of the last event the subscriber received before it was disconnected, null for a new subscriber
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        var subscriber = new Subscriber(new SseEmitter(timeout), lastEventId != null);
+        subscribers.add(subscriber);
+
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+
+        // events polled meanwhile wait in the buffer until the missed ones are in front of them
+        if (lastEventId != null) {
+            subscriber.resume(lastEventId, missedSince(lastEventId));
+        }
+        subscriber.schedule();
+
+        return subscriber.emitter;
+    }
+
+    /**
+     * Modifications committed after the given one in their order, a framework modified several times
+     * is included once in its current state as {@link Type#UPDATED}
+     * @return null if there are more of them than the history size, tombstones of some of them have been pruned,
+     * or they can't be read
+     */
+    private List<JavaScriptFrameworkChangeEvent> missedSince(long changeSeq) {
+        try {
+            return transaction.execute(status -> {
+                var page = PageRequest.of(0, historySize + 1);
+                var frameworks = repository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(changeSeq, page);
+                var tombstones = tombstoneRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(changeSeq, page);
+                if (frameworks.size() + tombstones.size() > historySize || changeSeq < repository.findPrunedChangeSeq()) {
+                    return null;
+                }
+
+                var missed = new ArrayList<JavaScriptFrameworkChangeEvent>();
+                frameworks.forEach(framework -> missed.add(new JavaScriptFrameworkChangeEvent(framework.getChangeSeq(), Type.UPDATED,
+                        framework.getId(), framework.getName(), framework.getRevision())));
+                tombstones.forEach(tombstone -> missed.add(new JavaScriptFrameworkChangeEvent(tombstone.getChangeSeq(), Type.DELETED,
+                        tombstone.getFrameworkId(), tombstone.getName(), null)));
+                missed.sort(Comparator.comparingLong(JavaScriptFrameworkChangeEvent::getId));
+                return missed;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Missed framework changes could not be read", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // events, resets and heartbeats waiting to be sent, guarded by itself
+        private final Deque<Object> pending = new ArrayDeque<>();
+
+        // guarded by pending, set while a task of the subscriber is queued or running, or while it's being resumed
+        private boolean scheduled;
+
+        // guarded by pending
+        private boolean closed;
+
+        // start of the write in progress, 0 when nothing is being written
+        private volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter, boolean resuming) {
+            this.emitter = emitter;
+            this.scheduled = resuming;
+        }
+
+        /**
+         * Puts the missed events in front of the events polled since the subscription, or a reset if they are
+         * unknown. A polled event which is not after the missed ones is dropped, its framework is sent
+         * in the same or a later state.
+         */
+        void resume(long lastEventId, List<JavaScriptFrameworkChangeEvent> missed) {
+            synchronized (pending) {
+                if (closed) {
+                    // disconnected while the missed events were read, nothing was sent yet
+                    execute(this::drain);
+                    return;
+                }
+                if (missed == null) {
+                    pending.addFirst(RESET);
+                } else {
+                    long sentUpTo = missed.isEmpty() ? lastEventId : Math.max(lastEventId, missed.get(missed.size() - 1).getId());
+                    pending.removeIf(next -> ((JavaScriptFrameworkChangeEvent) next).getId() <= sentUpTo);
+                    for (int i = missed.size() - 1; i >= 0; i--) {
+                        pending.addFirst(missed.get(i));
+                    }
+                }
+                scheduled = false;
+            }
+        }
+
+        void offer(JavaScriptFrameworkChangeEvent event) {
+            synchronized (pending) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= subscriberBuffer) {
+                    // a slow subscriber must not hold the events of the others back, it resumes after reconnecting
+                    log.debug("Framework change subscriber disconnected, {} events are waiting", pending.size());
+                    close();
+                    return;
+                }
+                pending.addLast(event);
+            }
+            schedule();
+        }
+
+        /**
+         * Keeps idle connections from being closed by proxies, skipped while events are being sent
+         */
+        void heartbeat() {
+            synchronized (pending) {
+                if (closed || scheduled) {
+                    return;
+                }
+                pending.addLast(HEARTBEAT);
+            }
+            schedule();
+        }
+
+        /**
+         * Disconnects the subscriber when its write blocks, it no longer gets events while the write holds its thread
+         */
+        void checkSend() {
+            long since = sendingSince;
+            if (since != 0 && System.nanoTime() - since > sendTimeout) {
+                log.debug("Framework change subscriber disconnected, a write is blocked");
+                synchronized (pending) {
+                    close();
+                }
+            }
+        }
+
+        // guarded by pending
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            subscribers.remove(this);
+            // the emitter is completed by the task of the subscriber, after its blocked write if there is one
+            if (!scheduled) {
+                scheduled = true;
+                execute(this::drain);
+            }
+        }
+
+        void schedule() {
+            synchronized (pending) {
+                if (scheduled || closed || pending.isEmpty()) {
+                    return;
+                }
+                scheduled = true;
+            }
+            execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    Object next;
+                    synchronized (pending) {
+                        if (closed) {
+                            break;
+                        }
+                        next = pending.pollFirst();
+                        if (next == null) {
+                            scheduled = false;
+                            return;
+                        }
+                    }
+                    sendingSince = System.nanoTime();
+                    try {
+                        send(next);
+                    } finally {
+                        sendingSince = 0;
+                    }
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                disconnect(e);
+            }
+        }
+
+        private void send(Object next) throws IOException {
+            if (next == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            if (next == RESET) {
+                emitter.send(SseEmitter.event().name(RESET_EVENT).data("Events were missed, read the frameworks again"));
+                return;
+            }
+            var event = (JavaScriptFrameworkChangeEvent) next;
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.getId()))
+                    .name(CHANGE_EVENT)
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        private void disconnect(Exception e) {
+            log.debug("Framework change subscriber disconnected", e);
+            synchronized (pending) {
+                closed = true;
+                pending.clear();
+            }
+            subscribers.remove(this);
+            emitter.completeWithError(e);
+        }
+
+        private void execute(Runnable task) {
+            try {
+                dispatcher.execute(task);
+            } catch (RejectedExecutionException e) {
+                // shutting down
+            }
+        }
+    }
+}
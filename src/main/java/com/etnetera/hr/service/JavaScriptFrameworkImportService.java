@@ -0,0 +1,18 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO;
+
+import java.util.Iterator;
+
+public interface JavaScriptFrameworkImportService {
+
+    /**
+     * Creates frameworks in chunks, each chunk is committed in its own transaction.
+     * Invalid frameworks and duplicates are reported in the result instead of failing the whole import.
+     * @param frameworks frameworks to be imported, consumed lazily so it may be backed by the request body
+     * @param upsert whether existing frameworks with the same name should be overwritten or reported as duplicates
+     * @return per framework outcome
+     */
+    JavaScriptFrameworkImportResultDTO importFrameworks(Iterator<JavaScriptFrameworkDTO> frameworks, boolean upsert);
+}
@@ -0,0 +1,163 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.config.FrameworkProperties;
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO.Item;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO.Status;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class JavaScriptFrameworkImportServiceImpl implements JavaScriptFrameworkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(JavaScriptFrameworkImportServiceImpl.class);
+
+    private final JavaScriptFrameworkRepository repository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final JavaScriptFrameworkCache cache;
+
+    private final JavaScriptFrameworkChangeFeed changeFeed;
+
+    private final int chunkSize;
+
+    public JavaScriptFrameworkImportServiceImpl(JavaScriptFrameworkRepository repository, EntityManager entityManager,
+                                                PlatformTransactionManager transactionManager, Validator validator,
+                                                JavaScriptFrameworkCache cache, JavaScriptFrameworkChangeFeed changeFeed,
+                                                FrameworkProperties properties) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.cache = cache;
+        this.changeFeed = changeFeed;
+        this.chunkSize = properties.getBulk().getChunkSize();
+    }
+
+    @Override
+    public JavaScriptFrameworkImportResultDTO importFrameworks(Iterator<JavaScriptFrameworkDTO> frameworks, boolean upsert) {
+        var items = new ArrayList<Item>();
+        var chunk = new ArrayList<JavaScriptFrameworkDTO>(chunkSize);
+
+        while (frameworks.hasNext()) {
+            chunk.add(frameworks.next());
+            if (chunk.size() == chunkSize) {
+                items.addAll(importChunk(chunk, items.size(), upsert));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            items.addAll(importChunk(chunk, items.size(), upsert));
+        }
+
+        return new JavaScriptFrameworkImportResultDTO(items);
+    }
+
+    private List<Item> importChunk(List<JavaScriptFrameworkDTO> chunk, int offset, boolean upsert) {
+        try {
+            return transactionTemplate.execute(status -> doImportChunk(chunk, offset, upsert));
+        } catch (RuntimeException e) {
+            log.warn("Import of frameworks {} to {} failed", offset, offset + chunk.size() - 1, e);
+
+            var items = new ArrayList<Item>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                items.add(new Item(offset + i, chunk.get(i).getName(), Status.FAILED, null, "Chunk rolled back: " + e.getMessage()));
+            }
+            return items;
+        }
+    }
+
+    private List<Item> doImportChunk(List<JavaScriptFrameworkDTO> chunk, int offset, boolean upsert) {
+        var names = chunk.stream()
+                .map(JavaScriptFrameworkDTO::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        // single query for the whole chunk, rows are repeated for every fetched version
+        Map<String, JavaScriptFramework> existing = names.isEmpty() ? Map.of() : repository.findByNameIn(names).stream()
+                .collect(Collectors.toMap(JavaScriptFramework::getName, Function.identity(), (first, second) -> first));
+
+        // one round trip reserves a number for every framework of the chunk, the numbers of skipped ones stay unused
+        var now = Instant.now();
+        long changeSeq = repository.nextChangeSeq(chunk.size(), now);
+        changeFeed.pollAfterCommit(changeSeq + chunk.size() - 1);
+
+        var items = new ArrayList<Item>(chunk.size());
+        var imported = new HashSet<String>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            var dto = chunk.get(i);
+            int index = offset + i;
+
+            var violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                items.add(new Item(index, dto.getName(), Status.INVALID, null, describe(violations)));
+                continue;
+            }
+            if (!imported.add(dto.getName())) {
+                items.add(new Item(index, dto.getName(), Status.DUPLICATE, null, "Framework is repeated in the import"));
+                continue;
+            }
+
+            var framework = existing.get(dto.getName());
+            if (framework == null) {
+                framework = new JavaScriptFramework();
+                apply(dto, framework);
+                framework.markModified(changeSeq + i, now);
+                // the pooled sequence assigns the id without a round trip for most of the frameworks
+                entityManager.persist(framework);
+                items.add(new Item(index, dto.getName(), Status.CREATED, framework.getId(), null));
+            } else if (upsert) {
+                apply(dto, framework);
+                framework.markModified(changeSeq + i, now);
+                items.add(new Item(index, dto.getName(), Status.UPDATED, framework.getId(), null));
+            } else {
+                items.add(new Item(index, dto.getName(), Status.DUPLICATE, framework.getId(), "Framework already exists"));
+                continue;
+            }
+
+            cache.evict(framework.getId(), framework.getName());
+        }
+
+        return items;
+    }
+
+    private static void apply(JavaScriptFrameworkDTO dto, JavaScriptFramework framework) {
+        framework.setName(dto.getName());
+        framework.updateVersion(dto.getVersion());
+        framework.setDeprecationDate(dto.getDeprecationDate());
+        framework.setHypeLevel(dto.getHypeLevel());
+    }
+
+    private static String describe(Set<ConstraintViolation<JavaScriptFrameworkDTO>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+}
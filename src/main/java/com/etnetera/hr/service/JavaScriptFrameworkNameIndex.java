@@ -0,0 +1,222 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.config.FrameworkProperties;
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.dto.JavaScriptFrameworkCollectionVersionDTO;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory trigram index of framework names answering substring searches without scanning every name.
+ * <p>
+ * The index only narrows the search down to candidate ids, the database still verifies the match,
+ * so an entry left behind by a rename or a delete costs nothing but a wasted candidate. A missing entry would hide
+ * a match though, so the modifications of all instances are applied by the {@link JavaScriptFrameworkChangeFeed}.
+ * Every poll publishes a new immutable index and a search reads whichever index is current without touching the
+ * database. A framework created or renamed by another instance is found by its new name from the next poll on,
+ * writes of this instance are polled right after they commit.
+ * Frameworks written around the service, without a change number, are never indexed.
+ */
+@Component
+public class JavaScriptFrameworkNameIndex implements JavaScriptFrameworkChangeFeed.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(JavaScriptFrameworkNameIndex.class);
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final JavaScriptFrameworkRepository repository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final boolean enabled;
+
+    private final int maxCandidates;
+
+    // null until built
+    private volatile Index index;
+
+    public JavaScriptFrameworkNameIndex(JavaScriptFrameworkRepository repository, PlatformTransactionManager transactionManager,
+                                        JavaScriptFrameworkChangeFeed changeFeed, FrameworkProperties properties) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = properties.getSearch().getNameIndex().isEnabled();
+        this.maxCandidates = properties.getSearch().getNameIndex().getMaxCandidates();
+        if (enabled) {
+            changeFeed.addListener(this);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        index = readOnlyTransaction.execute(status -> {
+            // everything up to the counter is read by the stream, later modifications are applied again by the feed
+            long changeSeq = repository.findChangeCounter().getSeq();
+            var names = new HashMap<Long, String>();
+            var postings = new HashMap<String, Set<Long>>();
+            try (var frameworks = repository.streamNames()) {
+                frameworks.forEach(framework -> {
+                    names.put(framework.getId(), framework.getName());
+                    for (String gram : grams(JavaScriptFramework.normalizeName(framework.getName()))) {
+                        postings.computeIfAbsent(gram, key -> new HashSet<>()).add(framework.getId());
+                    }
+                });
+            }
+            var sorted = new HashMap<String, long[]>(postings.size() * 4 / 3 + 1);
+            postings.forEach((gram, ids) -> sorted.put(gram, sorted(ids)));
+            return new Index(sorted, names, changeSeq);
+        });
+
+        log.info("Framework name index with {} trigrams built in {} ms", index.postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Ids of the frameworks whose name may contain the text
+     * @return empty when the index can't narrow the search down, i.e. it's disabled, the text is shorter than
+     * a trigram or even its most selective trigram matches more than the configured maximum of candidates
+     */
+    public Optional<Set<Long>> candidates(String text) {
+        var current = index;
+        if (current == null) {
+            return Optional.empty();
+        }
+        var normalized = JavaScriptFramework.normalizeName(text);
+        if (normalized.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+
+        List<long[]> matches = grams(normalized).stream()
+                .map(gram -> current.postings.getOrDefault(gram, NO_IDS))
+                .sorted(Comparator.comparingInt(ids -> ids.length))
+                .collect(Collectors.toList());
+
+        var mostSelective = matches.get(0);
+        if (mostSelective.length > maxCandidates) {
+            return Optional.empty();
+        }
+
+        var candidates = new HashSet<Long>();
+        for (long id : mostSelective) {
+            if (matches.stream().allMatch(ids -> Arrays.binarySearch(ids, id) >= 0)) {
+                candidates.add(id);
+            }
+        }
+        return Optional.of(candidates);
+    }
+
+    /**
+     * Publishes a new index with the renamed, created and deleted frameworks. The postings of the trigrams
+     * which didn't change are shared with the current index.
+     */
+    @Override
+    public synchronized void onChanges(List<JavaScriptFrameworkChange> changes, JavaScriptFrameworkCollectionVersionDTO version) {
+        var current = index;
+        // the modifications committed before the build are read by it
+        if (current == null || version.getChangeSeq() <= current.changeSeq) {
+            return;
+        }
+
+        // every framework is in the changes once, in its current state
+        var names = new HashMap<>(current.names);
+        var added = new HashMap<String, Set<Long>>();
+        var removed = new HashMap<String, Set<Long>>();
+        for (var change : changes) {
+            if (change.getChangeSeq() <= current.changeSeq) {
+                continue;
+            }
+            var id = change.getFrameworkId();
+            var newName = change.isDeleted() ? null : change.getName();
+            var oldName = newName == null ? names.remove(id) : names.put(id, newName);
+            if (Objects.equals(oldName, newName)) {
+                continue;
+            }
+            if (oldName != null) {
+                for (String gram : grams(JavaScriptFramework.normalizeName(oldName))) {
+                    removed.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+                }
+            }
+            if (newName != null) {
+                for (String gram : grams(JavaScriptFramework.normalizeName(newName))) {
+                    added.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+                }
+            }
+        }
+
+        var postings = new HashMap<>(current.postings);
+        var grams = new HashSet<>(added.keySet());
+        grams.addAll(removed.keySet());
+        for (String gram : grams) {
+            var ids = new HashSet<Long>();
+            for (long id : current.postings.getOrDefault(gram, NO_IDS)) {
+                ids.add(id);
+            }
+            ids.removeAll(removed.getOrDefault(gram, Set.of()));
+            ids.addAll(added.getOrDefault(gram, Set.of()));
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            } else {
+                postings.put(gram, sorted(ids));
+            }
+        }
+
+        index = new Index(postings, names, version.getChangeSeq());
+    }
+
+    private static long[] sorted(Set<Long> ids) {
+        var result = ids.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    static Set<String> grams(String normalized) {
+        return IntStream.rangeClosed(0, normalized.length() - GRAM_LENGTH)
+                .mapToObj(i -> normalized.substring(i, i + GRAM_LENGTH))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Immutable postings, so a search never sees a rename or a delete half applied
+     */
+    private static final class Index {
+
+        // ordered ids of the frameworks whose name contains the trigram
+        private final Map<String, long[]> postings;
+
+        // indexed name of each framework, to unindex the old name of a renamed framework
+        private final Map<Long, String> names;
+
+        // number of the latest modification applied to the index
+        private final long changeSeq;
+
+        Index(Map<String, long[]> postings, Map<Long, String> names, long changeSeq) {
+            this.postings = postings;
+            this.names = names;
+            this.changeSeq = changeSeq;
+        }
+    }
+}
@@ -1,13 +1,27 @@
 package com.etnetera.hr.service;
 
-import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.dto.JavaScriptFrameworkBatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkChangesDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkCollectionVersionDTO;
 import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPageDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchResultDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkStatsDTO;
 import com.etnetera.hr.exception.JavascriptFrameworkDuplicateException;
+import com.etnetera.hr.exception.JavascriptFrameworkInvalidRequestException;
 import com.etnetera.hr.exception.JavascriptFrameworkNotFoundException;
+import com.etnetera.hr.exception.JavascriptFrameworkPreconditionFailedException;
+import com.etnetera.hr.exception.JavascriptFrameworkResyncRequiredException;
 
-import java.time.LocalDate;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface JavaScriptFrameworkService {
 
@@ -27,6 +41,20 @@ public interface JavaScriptFrameworkService {
      */
     List<JavaScriptFrameworkDTO> findAllFrameworks();
 
+    /**
+     * Keyset page of frameworks ordered by id
+     * @param after id of the last framework of the previous page or null for the first page
+     * @param size maximum number of frameworks in the page
+     * @return page of frameworks with a cursor to the next page
+     */
+    JavaScriptFrameworkPageDTO findFrameworks(Long after, int size);
+
+    /**
+     * Streams the entire collection of frameworks ordered by id without loading it into memory
+     * @param consumer called for every framework in order
+     */
+    void streamAllFrameworks(Consumer<JavaScriptFrameworkDTO> consumer);
+
     /**
      * Finds saved JavaScriptFramework and returns its dto
      * @param frameworkId id of the framework
@@ -34,13 +62,61 @@ public interface JavaScriptFrameworkService {
      */
     Optional<JavaScriptFrameworkDTO> findFrameworkById(Long frameworkId);
 
+    /**
+     * Finds many frameworks at once with a single query, versions are loaded in batches
+     * @param ids ids of the frameworks, may be empty
+     * @param names names of the frameworks, may be empty
+     * @return found frameworks in the order of the ids followed by the names, each framework only once,
+     * with the ids and names which don't exist
+     */
+    JavaScriptFrameworkBatchDTO findFrameworks(Collection<Long> ids, Collection<String> names);
+
+    /**
+     * Current revision of a framework, read without loading the framework
+     * @param frameworkId id of the framework
+     * @return revision or Optional.empty() if the framework does not exist
+     */
+    Optional<Long> findRevision(Long frameworkId);
+
+    /**
+     * Number and time of the last modification of any framework, changes whenever a framework is created, updated or deleted
+     */
+    JavaScriptFrameworkCollectionVersionDTO collectionVersion();
+
+    /**
+     * Frameworks created or updated and frameworks deleted after the given modification, ordered by their modification
+     * @param since number of the last modification the client has seen, 0 for all frameworks
+     * @param size maximum number of created, updated and deleted frameworks together
+     * @return changes with the number of the last returned modification to ask for the next changes with
+     * @throws JavascriptFrameworkResyncRequiredException if tombstones of frameworks deleted
+     * after the given modification have already been pruned
+     */
+    JavaScriptFrameworkChangesDTO findChanges(long since, int size);
+
     /**
      * Updates saved JavaScriptFramework
      * @param frameworkId id of the saved framework
      * @param dto with the updated values
+     * @param expectedRevisions revisions the update may be based on, the framework has to have one of them; null to update any revision
+     * @return revision of the updated framework
+     * @throws JavascriptFrameworkNotFoundException if a framework with the given id does not exist
+     * @throws JavascriptFrameworkDuplicateException if another framework already has the new name
+     * @throws JavascriptFrameworkPreconditionFailedException if the framework has another revision or is modified concurrently
+     */
+    Long update(Long frameworkId, JavaScriptFrameworkDTO dto, Set<Long> expectedRevisions);
+
+    /**
+     * Changes only the properties present in the patch, unchanged columns and versions are not written
+     * @param frameworkId id of the saved framework
+     * @param patch properties to be changed
+     * @param expectedRevisions revisions the patch may be based on, the framework has to have one of them; null to patch any revision
+     * @return revision of the patched framework
+     * @throws JavascriptFrameworkInvalidRequestException if the patch removes the name
      * @throws JavascriptFrameworkNotFoundException if a framework with the given id does not exist
+     * @throws JavascriptFrameworkDuplicateException if another framework already has the new name
+     * @throws JavascriptFrameworkPreconditionFailedException if the framework has another revision or is modified concurrently
      */
-    void update(Long frameworkId, JavaScriptFrameworkDTO dto);
+    Long patch(Long frameworkId, JavaScriptFrameworkPatchDTO patch, Set<Long> expectedRevisions);
 
     /**
      * Deletes saved JavaScriptFramework
@@ -59,12 +135,19 @@ public interface JavaScriptFrameworkService {
     void addVersion(String name, String newVersion);
 
     /**
-     * Search for a framework by one or more of its properties
-     * @param name optional case-insensitive
-     * @param version optional
-     * @param deprecationDate optional
-     * @param hypeLevel optional
-     * @return list of matching JavaScriptFramework or an empty list
+     * Search for frameworks matching all the given criteria
+     * @param criteria filters, unset ones are not applied
+     * @param pageable page and sort by id, name, deprecationDate or hypeLevel
+     * @param withTotal whether all the matching frameworks should be counted
+     * @return page of matching JavaScriptFramework
+     * @throws JavascriptFrameworkInvalidRequestException if sorted by an unknown property
+     */
+    JavaScriptFrameworkSearchResultDTO search(JavaScriptFrameworkSearchCriteria criteria, Pageable pageable, boolean withTotal);
+
+    /**
+     * Counts of the frameworks matching the criteria by hype level and deprecation year and the frameworks with the most versions,
+     * cached until the next modification
+     * @param criteria same filters as of the search, must not be modified afterwards
      */
-    List<JavaScriptFrameworkDTO> search(String name, String version, LocalDate deprecationDate, HypeLevel hypeLevel);
+    JavaScriptFrameworkStatsDTO stats(JavaScriptFrameworkSearchCriteria criteria);
 }
@@ -1,139 +1,471 @@
 package com.etnetera.hr.service;
 
-import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.config.FrameworkProperties;
 import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.data.JavaScriptFrameworkTombstone;
+import com.etnetera.hr.data.NameMatch;
+import com.etnetera.hr.dto.JavaScriptFrameworkBatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkChangesDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkCollectionVersionDTO;
 import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPageDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchResultDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkStatsDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkTombstoneDTO;
 import com.etnetera.hr.exception.JavascriptFrameworkDuplicateException;
+import com.etnetera.hr.exception.JavascriptFrameworkInvalidRequestException;
 import com.etnetera.hr.exception.JavascriptFrameworkNotFoundException;
+import com.etnetera.hr.exception.JavascriptFrameworkPreconditionFailedException;
+import com.etnetera.hr.exception.JavascriptFrameworkResyncRequiredException;
 import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import com.etnetera.hr.repository.JavaScriptFrameworkTombstoneRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.criteria.Predicate;
-import javax.persistence.criteria.SetJoin;
-import java.time.LocalDate;
-import java.util.HashSet;
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static com.etnetera.hr.repository.JavaScriptFrameworkSpecifications.*;
+
 @Service
 public class JavaScriptFrameworkServiceImpl implements JavaScriptFrameworkService {
 
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "deprecationDate", "hypeLevel");
+
     private final JavaScriptFrameworkRepository repository;
 
-    public JavaScriptFrameworkServiceImpl(JavaScriptFrameworkRepository repository) {
+    private final JavaScriptFrameworkTombstoneRepository tombstoneRepository;
+
+    private final EntityManager entityManager;
+
+    private final JavaScriptFrameworkCache cache;
+
+    private final JavaScriptFrameworkNameIndex nameIndex;
+
+    private final JavaScriptFrameworkChangeFeed changeFeed;
+
+    private final JavaScriptFrameworkStatsCache statsCache;
+
+    private final int mostVersioned;
+
+    public JavaScriptFrameworkServiceImpl(JavaScriptFrameworkRepository repository, JavaScriptFrameworkTombstoneRepository tombstoneRepository,
+                                          EntityManager entityManager, JavaScriptFrameworkCache cache, JavaScriptFrameworkNameIndex nameIndex,
+                                          JavaScriptFrameworkChangeFeed changeFeed, JavaScriptFrameworkStatsCache statsCache,
+                                          FrameworkProperties properties) {
         this.repository = repository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.entityManager = entityManager;
+        this.cache = cache;
+        this.nameIndex = nameIndex;
+        this.changeFeed = changeFeed;
+        this.statsCache = statsCache;
+        this.mostVersioned = properties.getStats().getMostVersioned();
     }
 
+    // cache hits must not open a transaction, repository calls run in their own read-only one
     @Override
     public boolean exists(String frameworkName) {
-        return repository.findByName(frameworkName).isPresent();
+        return cache.peekByName(frameworkName).isPresent() || repository.existsByName(frameworkName);
     }
 
     @Override
+    @Transactional
     public JavaScriptFrameworkDTO createFramework(JavaScriptFrameworkDTO dto) {
 
-        if (exists(dto.getName())) {
-            throw new JavascriptFrameworkDuplicateException("Framework already exists");
-        }
-
         JavaScriptFramework framework = new JavaScriptFramework();
 
         framework.setName(dto.getName());
         framework.setVersion(dto.getVersion());
         framework.setHypeLevel(dto.getHypeLevel());
         framework.setDeprecationDate(dto.getDeprecationDate());
+        markModified(framework);
 
-        return new JavaScriptFrameworkDTO(repository.save(framework));
+        // the unique constraint on name is the duplicate check, it can't be raced like a separate lookup
+        var saved = saveAndFlush(framework);
+        cache.evict(saved.getId(), saved.getName());
+
+        return new JavaScriptFrameworkDTO(saved);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<JavaScriptFrameworkDTO> findAllFrameworks() {
         return repository.findAll().stream()
                 .map(JavaScriptFrameworkDTO::new)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public JavaScriptFrameworkPageDTO findFrameworks(Long after, int size) {
+        var frameworks = repository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, PageRequest.of(0, size + 1));
+
+        Long next = null;
+        if (frameworks.size() > size) {
+            frameworks = frameworks.subList(0, size);
+            next = frameworks.get(size - 1).getId();
+        }
+
+        return new JavaScriptFrameworkPageDTO(frameworks.stream()
+                .map(JavaScriptFrameworkDTO::new)
+                .collect(Collectors.toList()), next);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllFrameworks(Consumer<JavaScriptFrameworkDTO> consumer) {
+        try (var frameworks = repository.streamAll()) {
+            frameworks.forEach(framework -> {
+                consumer.accept(new JavaScriptFrameworkDTO(framework));
+                // keep the persistence context from growing with the table
+                entityManager.detach(framework);
+            });
+        }
+    }
+
     @Override
     public Optional<JavaScriptFrameworkDTO> findFrameworkById(Long frameworkId) {
-        var framework = repository.findById(frameworkId);
-        return framework.map(JavaScriptFrameworkDTO::new);
+        return cache.getById(frameworkId, id -> repository.findById(id).map(JavaScriptFrameworkDTO::new));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JavaScriptFrameworkBatchDTO findFrameworks(Collection<Long> ids, Collection<String> names) {
+        // one query for both, an empty IN list isn't valid everywhere
+        var specification = Specification.where(ids.isEmpty() ? null : idIn(ids))
+                .or(names.isEmpty() ? null : nameIn(names));
+        var frameworks = ids.isEmpty() && names.isEmpty() ? List.<JavaScriptFramework>of() : repository.findAll(specification);
+
+        var byId = new HashMap<Long, JavaScriptFramework>();
+        var byName = new HashMap<String, JavaScriptFramework>();
+        for (var framework : frameworks) {
+            byId.put(framework.getId(), framework);
+            byName.put(framework.getName(), framework);
+        }
+
+        var found = new LinkedHashMap<Long, JavaScriptFrameworkDTO>();
+        var missingIds = new ArrayList<Long>();
+        var missingNames = new ArrayList<String>();
+        for (var id : ids) {
+            var framework = byId.get(id);
+            if (framework == null) {
+                missingIds.add(id);
+            } else {
+                found.computeIfAbsent(id, key -> new JavaScriptFrameworkDTO(framework));
+            }
+        }
+        for (var name : names) {
+            var framework = byName.get(name);
+            if (framework == null) {
+                missingNames.add(name);
+            } else {
+                found.computeIfAbsent(framework.getId(), key -> new JavaScriptFrameworkDTO(framework));
+            }
+        }
+
+        return new JavaScriptFrameworkBatchDTO(new ArrayList<>(found.values()), missingIds, missingNames);
+    }
+
+    @Override
+    public Optional<Long> findRevision(Long frameworkId) {
+        var cached = cache.peekById(frameworkId);
+        return cached.isPresent() ? cached.map(JavaScriptFrameworkDTO::getRevision) : repository.findRevisionById(frameworkId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JavaScriptFrameworkCollectionVersionDTO collectionVersion() {
+        var counter = repository.findChangeCounter();
+        return new JavaScriptFrameworkCollectionVersionDTO(counter.getSeq(), counter.getModifiedAt());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JavaScriptFrameworkChangesDTO findChanges(long since, int size) {
+        // one more row of each tells whether anything is left after the page
+        var page = PageRequest.of(0, size + 1);
+        var frameworks = repository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, page);
+        var tombstones = tombstoneRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, page);
+        // read after the tombstones, a pruning committed in between is seen here
+        if (since > 0 && since < repository.findPrunedChangeSeq()) {
+            throw new JavascriptFrameworkResyncRequiredException("Frameworks deleted after the modification " + since
+                    + " are no longer known, read all the frameworks again");
+        }
+
+        // merge the two ordered lists into the first size modifications
+        var items = new ArrayList<JavaScriptFrameworkDTO>();
+        var deleted = new ArrayList<JavaScriptFrameworkTombstoneDTO>();
+        int f = 0;
+        int t = 0;
+        long next = since;
+        while (items.size() + deleted.size() < size && (f < frameworks.size() || t < tombstones.size())) {
+            if (t == tombstones.size() || (f < frameworks.size() && frameworks.get(f).getChangeSeq() < tombstones.get(t).getChangeSeq())) {
+                var framework = frameworks.get(f++);
+                items.add(new JavaScriptFrameworkDTO(framework));
+                next = framework.getChangeSeq();
+            } else {
+                var tombstone = tombstones.get(t++);
+                deleted.add(new JavaScriptFrameworkTombstoneDTO(tombstone));
+                next = tombstone.getChangeSeq();
+            }
+        }
+
+        boolean hasMore = f < frameworks.size() || t < tombstones.size();
+        return new JavaScriptFrameworkChangesDTO(items, deleted, next, hasMore);
     }
 
     @Override
     @Transactional
-    public void update(Long frameworkId, JavaScriptFrameworkDTO dto) {
+    public Long update(Long frameworkId, JavaScriptFrameworkDTO dto, Set<Long> expectedRevisions) {
 
         var framework = repository.findById(frameworkId)
                 .orElseThrow(() -> new JavascriptFrameworkNotFoundException("Framework does not exists"));
+        checkRevision(framework, expectedRevisions);
+        markModified(framework);
 
-        framework.setName(dto.getName());
-        framework.setVersion(dto.getVersion());
+        rename(framework, dto.getName());
+        framework.updateVersion(dto.getVersion());
         framework.setDeprecationDate(dto.getDeprecationDate());
         framework.setHypeLevel(dto.getHypeLevel());
 
-        repository.save(framework);
+        // only the changed columns and versions are written, the revision is incremented by the flush
+        return saveChanges(framework);
     }
 
     @Override
     @Transactional
-    public void delete(Long frameworkId) {
-        if (!repository.existsById(frameworkId)) {
-            throw new JavascriptFrameworkNotFoundException("Framework does not exist");
+    public Long patch(Long frameworkId, JavaScriptFrameworkPatchDTO patch, Set<Long> expectedRevisions) {
+
+        if (patch.hasName() && patch.getName() == null) {
+            throw new JavascriptFrameworkInvalidRequestException("Name cannot be removed");
         }
 
-        repository.deleteById(frameworkId);
+        // versions are loaded only when they are patched
+        var framework = (patch.hasVersion() ? repository.findById(frameworkId) : repository.findWithoutVersionsById(frameworkId))
+                .orElseThrow(() -> new JavascriptFrameworkNotFoundException("Framework does not exists"));
+        checkRevision(framework, expectedRevisions);
+        markModified(framework);
+
+        if (patch.hasName()) {
+            rename(framework, patch.getName());
+        } else {
+            cache.evict(frameworkId, framework.getName());
+        }
+        if (patch.hasVersion()) {
+            framework.updateVersion(patch.getVersion());
+        }
+        if (patch.hasDeprecationDate()) {
+            framework.setDeprecationDate(patch.getDeprecationDate());
+        }
+        if (patch.hasHypeLevel()) {
+            framework.setHypeLevel(patch.getHypeLevel());
+        }
+
+        return saveChanges(framework);
+    }
+
+    /**
+     * Flushes the modified framework, the change feed streams the change once it commits
+     * @return revision of the framework
+     */
+    private Long saveChanges(JavaScriptFramework framework) {
+        saveAndFlush(framework);
+        return framework.getRevision();
+    }
+
+    /**
+     * Takes the number of the modification before anything is written, see
+     * {@link com.etnetera.hr.repository.JavaScriptFrameworkRepositoryCustom#nextChangeSeq(int, Instant)}
+     */
+    private void markModified(JavaScriptFramework framework) {
+        var now = Instant.now();
+        framework.markModified(nextChangeSeq(now), now);
+    }
+
+    /**
+     * Takes the number of the next modification, the change feed reads the modification once it commits
+     */
+    private long nextChangeSeq(Instant now) {
+        long changeSeq = repository.nextChangeSeq(1, now);
+        changeFeed.pollAfterCommit(changeSeq);
+        return changeSeq;
+    }
+
+    private static void checkRevision(JavaScriptFramework framework, Set<Long> expectedRevisions) {
+        // immutable sets don't take nulls, not even to look them up
+        if (expectedRevisions != null && (framework.getRevision() == null || !expectedRevisions.contains(framework.getRevision()))) {
+            throw new JavascriptFrameworkPreconditionFailedException("Framework has been modified, its revision is " + framework.getRevision());
+        }
+    }
+
+    private void rename(JavaScriptFramework framework, String name) {
+        cache.evict(framework.getId(), framework.getName(), name);
+        framework.setName(name);
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long frameworkId) {
+        var framework = repository.findById(frameworkId)
+                .orElseThrow(() -> new JavascriptFrameworkNotFoundException("Framework does not exist"));
+
+        var now = Instant.now();
+        long changeSeq = nextChangeSeq(now);
+
+        cache.evict(frameworkId, framework.getName());
+
+        repository.delete(framework);
+        // consumers of the changes learn about the delete from the tombstone
+        tombstoneRepository.save(new JavaScriptFrameworkTombstone(frameworkId, framework.getName(), changeSeq, now));
     }
 
     @Override
     @Transactional
     public void addVersion(String name, String newVersion) {
 
-        var framework = repository.findByName(name)
+        // reject known duplicates without touching the database
+        var cached = cache.peekByName(name);
+        if (cached.map(framework -> framework.getVersion().contains(newVersion)).orElse(false)) {
+            throw new JavascriptFrameworkDuplicateException("Version already exists");
+        }
+
+        var id = cached.map(JavaScriptFrameworkDTO::getId).or(() -> repository.findIdByName(name))
                 .orElseThrow(() -> new JavascriptFrameworkNotFoundException("Framework does not exists"));
 
-        var originalVersions = framework.getVersion();
-        if (originalVersions.contains(newVersion)) {
-            throw new JavascriptFrameworkDuplicateException("Version already exists");
+        var now = Instant.now();
+        long changeSeq = nextChangeSeq(now);
+
+        // a single insert checked by the unique constraint
+        try {
+            repository.insertVersion(id, newVersion);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isUniqueViolation(e)) {
+                throw new JavascriptFrameworkDuplicateException("Version already exists");
+            }
+            if (ConstraintViolations.isForeignKeyViolation(e)) {
+                // deleted since its id was looked up
+                throw new JavascriptFrameworkNotFoundException("Framework does not exists");
+            }
+            throw e;
+        }
+        // the new revision changes its ETag
+        repository.incrementRevision(id, changeSeq, now);
+
+        cache.evict(id, name);
+    }
+
+    private JavaScriptFramework saveAndFlush(JavaScriptFramework framework) {
+        try {
+            return repository.saveAndFlush(framework);
+        } catch (OptimisticLockingFailureException e) {
+            throw new JavascriptFrameworkPreconditionFailedException("Framework has been modified concurrently", e);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isUniqueViolation(e)) {
+                throw new JavascriptFrameworkDuplicateException("Framework already exists");
+            }
+            throw e;
         }
-        var versions = new HashSet<>(originalVersions);
-        versions.add(newVersion);
-        framework.setVersion(versions);
-        repository.save(framework);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<JavaScriptFrameworkDTO> search(String name, String version, LocalDate deprecationDate, HypeLevel hypeLevel) {
+    public JavaScriptFrameworkSearchResultDTO search(JavaScriptFrameworkSearchCriteria criteria, Pageable pageable, boolean withTotal) {
 
-        return repository.findAll(((root, query, criteriaBuilder) -> {
+        var page = searchPage(pageable);
 
-            Predicate where = criteriaBuilder.conjunction();
+        var specification = searchSpecification(criteria);
+        if (specification.isEmpty()) {
+            return new JavaScriptFrameworkSearchResultDTO(List.of(), page.getPageNumber(), page.getPageSize(), false, withTotal ? 0L : null);
+        }
 
-            if (name != null) {
-                var nameLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), '%' + name.toLowerCase() + '%');
-                where = criteriaBuilder.and(where, nameLike);
-            }
-            if (version != null) {
-                SetJoin<JavaScriptFramework, String> joinVersion = root.joinSet("version");
-                var versionEq = criteriaBuilder.and(joinVersion.in(Set.of(version)));
-                where = criteriaBuilder.and(where, versionEq);
-            }
-            if (deprecationDate != null) {
-                var deprecationDateEq = criteriaBuilder.equal(root.get("deprecationDate"), deprecationDate);
-                where = criteriaBuilder.and(where, deprecationDateEq);
+        // counting all matches is a second query over the same joins, so it's only done on request
+        Slice<JavaScriptFramework> frameworks = withTotal ? repository.findAll(specification.get(), page) : repository.findSlice(specification.get(), page);
+
+        return new JavaScriptFrameworkSearchResultDTO(
+                frameworks.stream().map(JavaScriptFrameworkDTO::new).collect(Collectors.toList()),
+                page.getPageNumber(), page.getPageSize(), frameworks.hasNext(),
+                withTotal ? ((Page<JavaScriptFramework>) frameworks).getTotalElements() : null);
+    }
+
+    /**
+     * Statistics are grouped by the database within one transaction after the counter is read,
+     * so they include at least the modifications up to the counter
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public JavaScriptFrameworkStatsDTO stats(JavaScriptFrameworkSearchCriteria criteria) {
+        long changeSeq = repository.findChangeCounter().getSeq();
+        return statsCache.get(criteria, changeSeq, () -> {
+            var specification = searchSpecification(criteria);
+            if (specification.isEmpty()) {
+                return new JavaScriptFrameworkStatsDTO(changeSeq, 0, List.of(), List.of(), List.of());
             }
-            if (hypeLevel != null) {
-                var hypeLevelEq = criteriaBuilder.equal(root.get("hypeLevel"), hypeLevel);
-                where = criteriaBuilder.and(where, hypeLevelEq);
+
+            var byHypeLevel = repository.countByHypeLevel(specification.get()).entrySet().stream()
+                    .map(count -> new JavaScriptFrameworkStatsDTO.HypeLevelCount(count.getKey(), count.getValue()))
+                    .collect(Collectors.toList());
+            var byDeprecationYear = repository.countByDeprecationYear(specification.get()).entrySet().stream()
+                    .map(count -> new JavaScriptFrameworkStatsDTO.YearCount(count.getKey(), count.getValue()))
+                    .collect(Collectors.toList());
+            var mostVersioned = repository.findMostVersioned(specification.get(), this.mostVersioned).stream()
+                    .map(count -> new JavaScriptFrameworkStatsDTO.VersionCount(count.getId(), count.getName(), count.getVersions()))
+                    .collect(Collectors.toList());
+            long total = byHypeLevel.stream().mapToLong(JavaScriptFrameworkStatsDTO.HypeLevelCount::getCount).sum();
+
+            return new JavaScriptFrameworkStatsDTO(changeSeq, total, byHypeLevel, byDeprecationYear, mostVersioned);
+        });
+    }
+
+    /**
+     * All the filters of the criteria in one statement, a contains match is narrowed down by the name index when it's enabled
+     * @return empty if the name index rules out every framework, it has applied all the modifications committed
+     * before the search so a framework missing from it can't match
+     */
+    private Optional<Specification<JavaScriptFramework>> searchSpecification(JavaScriptFrameworkSearchCriteria criteria) {
+        Specification<JavaScriptFramework> candidates = null;
+        if (criteria.getName() != null && criteria.getNameMatch() != NameMatch.PREFIX) {
+            var ids = nameIndex.candidates(criteria.getName());
+            if (ids.isPresent() && ids.get().isEmpty()) {
+                return Optional.empty();
             }
+            candidates = idIn(ids.orElse(null));
+        }
 
-            return where;
-        })).stream()
-                .map(JavaScriptFrameworkDTO::new)
-                .collect(Collectors.toList());
+        // the versions of a page are batch loaded by a second statement
+        return Optional.of(matching(criteria).and(candidates));
+    }
+
+    /**
+     * Page of a search sorted only by the known properties, ties are broken by id so that pages don't overlap
+     * @throws JavascriptFrameworkInvalidRequestException if sorted by an unknown property
+     */
+    static PageRequest searchPage(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new JavascriptFrameworkInvalidRequestException("Cannot sort by " + order.getProperty());
+            }
+        }
+        var sort = pageable.getSort().getOrderFor("id") == null ? pageable.getSort().and(Sort.by("id")) : pageable.getSort();
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
     }
 
 }
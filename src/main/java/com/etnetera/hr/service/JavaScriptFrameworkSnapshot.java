@@ -0,0 +1,560 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.data.NameMatch;
+import com.etnetera.hr.dto.JavaScriptFrameworkCollectionVersionDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPageDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchResultDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable copy of all the frameworks with an index of every searchable property.
+ * <p>
+ * Frameworks are held in the order of their ids and the indexes refer to their positions: ordered positions having
+ * a version, bit sets of the positions having a hype level or one of the versions shared by many frameworks, positions
+ * ordered by the search name for prefix matches and by the deprecation date for date ranges. A modification creates
+ * a new snapshot, so it can be read by any number of threads without locking. The new snapshot merges the modified
+ * frameworks into the orders of the current one, only the modified frameworks are sorted.
+ */
+final class JavaScriptFrameworkSnapshot {
+
+    /**
+     * A bit set of all the positions is smaller than an array of the positions of one in 32 frameworks
+     */
+    private static final int COMMON_VERSION_RATIO = Integer.SIZE;
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final JavaScriptFrameworkDTO[] frameworks;
+
+    private final long[] ids;
+
+    private final String[] searchNames;
+
+    private final Map<String, Integer> names;
+
+    // ordered positions of the frameworks having a version, unless it's in the common versions
+    private final Map<String, int[]> versions;
+
+    private final Map<String, BitSet> commonVersions;
+
+    private final Map<HypeLevel, BitSet> hypeLevels;
+
+    // positions ordered by the search name
+    private final int[] byName;
+
+    // positions of the deprecated frameworks ordered by the deprecation date, with their dates
+    private final int[] byDeprecation;
+
+    private final LocalDate[] deprecationDates;
+
+    private final long changeSeq;
+
+    private final Instant lastModified;
+
+    private JavaScriptFrameworkSnapshot(JavaScriptFrameworkDTO[] frameworks, String[] searchNames, int[] byName, int[] byDeprecation,
+                                        long changeSeq, Instant lastModified) {
+        int size = frameworks.length;
+        this.frameworks = frameworks;
+        this.ids = new long[size];
+        this.searchNames = searchNames;
+        this.names = new HashMap<>(size * 4 / 3 + 1);
+        this.versions = new HashMap<>();
+        this.commonVersions = new HashMap<>();
+        this.hypeLevels = new EnumMap<>(HypeLevel.class);
+        this.byName = byName;
+        this.byDeprecation = byDeprecation;
+        this.changeSeq = changeSeq;
+        this.lastModified = lastModified;
+
+        var positions = new HashMap<String, Positions>();
+        for (int i = 0; i < size; i++) {
+            var framework = frameworks[i];
+            ids[i] = framework.getId();
+            names.put(framework.getName(), i);
+            for (String version : framework.getVersion()) {
+                positions.computeIfAbsent(version, key -> new Positions()).add(i);
+            }
+            if (framework.getHypeLevel() != null) {
+                hypeLevels.computeIfAbsent(framework.getHypeLevel(), key -> new BitSet()).set(i);
+            }
+        }
+        positions.forEach((version, frameworksHaving) -> {
+            if (frameworksHaving.size * COMMON_VERSION_RATIO >= size) {
+                commonVersions.put(version, frameworksHaving.toBitSet());
+            } else {
+                versions.put(version, frameworksHaving.toArray());
+            }
+        });
+
+        this.deprecationDates = new LocalDate[byDeprecation.length];
+        for (int i = 0; i < byDeprecation.length; i++) {
+            deprecationDates[i] = frameworks[byDeprecation[i]].getDeprecationDate();
+        }
+    }
+
+    /**
+     * @param changeSeq number of the last modification included in the frameworks
+     */
+    static JavaScriptFrameworkSnapshot of(Collection<JavaScriptFrameworkDTO> frameworks, long changeSeq, Instant lastModified) {
+        var sorted = frameworks.toArray(new JavaScriptFrameworkDTO[0]);
+        Arrays.sort(sorted, Comparator.comparing(JavaScriptFrameworkDTO::getId));
+
+        var searchNames = new String[sorted.length];
+        var deprecated = new Positions();
+        for (int i = 0; i < sorted.length; i++) {
+            searchNames[i] = JavaScriptFramework.normalizeName(sorted[i].getName());
+            if (sorted[i].getDeprecationDate() != null) {
+                deprecated.add(i);
+            }
+        }
+
+        var byName = IntStream.range(0, sorted.length).toArray();
+        sort(byName, (first, second) -> searchNames[first].compareTo(searchNames[second]));
+        var byDeprecation = deprecated.toArray();
+        sort(byDeprecation, (first, second) -> sorted[first].getDeprecationDate().compareTo(sorted[second].getDeprecationDate()));
+
+        return new JavaScriptFrameworkSnapshot(sorted, searchNames, byName, byDeprecation, changeSeq, lastModified);
+    }
+
+    /**
+     * New snapshot with the modifications applied, this one stays unchanged. The frameworks which aren't modified
+     * keep their order by name and deprecation date, only the modified ones are sorted and merged into the orders.
+     * @param modified created and updated frameworks
+     * @param deleted ids of the deleted frameworks, ids which aren't in the snapshot are ignored
+     */
+    JavaScriptFrameworkSnapshot apply(Collection<JavaScriptFrameworkDTO> modified, Collection<Long> deleted,
+                                      long changeSeq, Instant lastModified) {
+        // the latest state of every modified framework, null for a deleted one
+        var changed = new HashMap<Long, JavaScriptFrameworkDTO>();
+        modified.forEach(framework -> changed.put(framework.getId(), framework));
+        deleted.forEach(id -> changed.put(id, null));
+
+        var created = changed.values().stream()
+                .filter(framework -> framework != null && Arrays.binarySearch(ids, framework.getId()) < 0)
+                .sorted(Comparator.comparing(JavaScriptFrameworkDTO::getId))
+                .toArray(JavaScriptFrameworkDTO[]::new);
+
+        // merge the kept and created frameworks by id, remembering where each one ends up
+        var merged = new JavaScriptFrameworkDTO[frameworks.length + created.length];
+        var mergedSearchNames = new String[merged.length];
+        var newPositions = new int[frameworks.length];
+        var touched = new Positions();
+        int size = 0;
+        int c = 0;
+        for (int i = 0; i <= frameworks.length; i++) {
+            while (c < created.length && (i == frameworks.length || created[c].getId() < ids[i])) {
+                touched.add(size);
+                mergedSearchNames[size] = JavaScriptFramework.normalizeName(created[c].getName());
+                merged[size++] = created[c++];
+            }
+            if (i == frameworks.length) {
+                break;
+            }
+            if (!changed.containsKey(ids[i])) {
+                newPositions[i] = size;
+                mergedSearchNames[size] = searchNames[i];
+                merged[size++] = frameworks[i];
+                continue;
+            }
+            // a replaced framework is merged into the orders like a created one
+            newPositions[i] = -1;
+            var replacement = changed.get(ids[i]);
+            if (replacement != null) {
+                touched.add(size);
+                mergedSearchNames[size] = JavaScriptFramework.normalizeName(replacement.getName());
+                merged[size++] = replacement;
+            }
+        }
+        var result = Arrays.copyOf(merged, size);
+        var resultSearchNames = Arrays.copyOf(mergedSearchNames, size);
+
+        var touchedPositions = touched.toArray();
+        IntBinaryOperator nameOrder = (first, second) -> resultSearchNames[first].compareTo(resultSearchNames[second]);
+        var touchedByName = touchedPositions.clone();
+        sort(touchedByName, nameOrder);
+        var resultByName = merge(kept(byName, newPositions), touchedByName, nameOrder);
+
+        IntBinaryOperator deprecationOrder = (first, second) ->
+                result[first].getDeprecationDate().compareTo(result[second].getDeprecationDate());
+        var touchedByDeprecation = Arrays.stream(touchedPositions)
+                .filter(position -> result[position].getDeprecationDate() != null)
+                .toArray();
+        sort(touchedByDeprecation, deprecationOrder);
+        var resultByDeprecation = merge(kept(byDeprecation, newPositions), touchedByDeprecation, deprecationOrder);
+
+        return new JavaScriptFrameworkSnapshot(result, resultSearchNames, resultByName, resultByDeprecation,
+                changeSeq, lastModified);
+    }
+
+    /**
+     * New positions of the frameworks left unmodified, in the given order
+     */
+    private static int[] kept(int[] positions, int[] newPositions) {
+        var result = new Positions();
+        for (int position : positions) {
+            if (newPositions[position] >= 0) {
+                result.add(newPositions[position]);
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Stable sort of positions, without boxing them for a comparator
+     */
+    private static void sort(int[] positions, IntBinaryOperator comparator) {
+        sort(positions.clone(), positions, 0, positions.length, comparator);
+    }
+
+    // sorts the range of the target, the source holds the same positions and is overwritten
+    private static void sort(int[] source, int[] target, int from, int to, IntBinaryOperator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(target, source, from, middle, comparator);
+        sort(target, source, middle, to, comparator);
+        merge(source, from, middle, source, middle, to, target, from, comparator);
+    }
+
+    private static int[] merge(int[] first, int[] second, IntBinaryOperator comparator) {
+        var result = new int[first.length + second.length];
+        merge(first, 0, first.length, second, 0, second.length, result, 0, comparator);
+        return result;
+    }
+
+    private static void merge(int[] first, int firstFrom, int firstTo, int[] second, int secondFrom, int secondTo,
+                              int[] target, int targetFrom, IntBinaryOperator comparator) {
+        int i = firstFrom;
+        int j = secondFrom;
+        int k = targetFrom;
+        while (i < firstTo && j < secondTo) {
+            // equal positions are taken from the first ones first
+            target[k++] = comparator.applyAsInt(first[i], second[j]) <= 0 ? first[i++] : second[j++];
+        }
+        while (i < firstTo) {
+            target[k++] = first[i++];
+        }
+        while (j < secondTo) {
+            target[k++] = second[j++];
+        }
+    }
+
+    JavaScriptFrameworkCollectionVersionDTO version() {
+        return new JavaScriptFrameworkCollectionVersionDTO(changeSeq, lastModified);
+    }
+
+    long getChangeSeq() {
+        return changeSeq;
+    }
+
+    int size() {
+        return frameworks.length;
+    }
+
+    List<JavaScriptFrameworkDTO> all() {
+        return Collections.unmodifiableList(Arrays.asList(frameworks));
+    }
+
+    Optional<JavaScriptFrameworkDTO> byId(Long id) {
+        int position = Arrays.binarySearch(ids, id);
+        return position < 0 ? Optional.empty() : Optional.of(frameworks[position]);
+    }
+
+    Optional<JavaScriptFrameworkDTO> byName(String name) {
+        var position = names.get(name);
+        return position == null ? Optional.empty() : Optional.of(frameworks[position]);
+    }
+
+    /**
+     * Same keyset page as {@link JavaScriptFrameworkService#findFrameworks(Long, int)}
+     */
+    JavaScriptFrameworkPageDTO page(Long after, int size) {
+        int from = after == null ? 0 : firstAfter(after);
+        int to = Math.min(from + size, frameworks.length);
+
+        var items = List.of(Arrays.copyOfRange(frameworks, from, to));
+        Long next = to < frameworks.length ? ids[to - 1] : null;
+        return new JavaScriptFrameworkPageDTO(items, next);
+    }
+
+    /**
+     * Same matches as the search query, frameworks without a deprecation date never match a date condition.
+     * Null values are sorted as the smallest ones like in H2.
+     * @param page sorted by known properties, see {@link JavaScriptFrameworkServiceImpl#searchPage(Pageable)}
+     */
+    JavaScriptFrameworkSearchResultDTO search(JavaScriptFrameworkSearchCriteria criteria, Pageable page, boolean withTotal,
+                                              SearchParallelism parallelism) {
+        var matching = matching(criteria, parallelism);
+        int total = matching.cardinality();
+        long offset = page.getOffset();
+
+        List<JavaScriptFrameworkDTO> items;
+        if (page.getSort().equals(Sort.by("id"))) {
+            // positions are in the order of the ids
+            items = matching.stream()
+                    .skip(offset)
+                    .limit(page.getPageSize())
+                    .mapToObj(i -> frameworks[i])
+                    .collect(Collectors.toList());
+        } else {
+            var sorted = matching.stream()
+                    .mapToObj(i -> frameworks[i])
+                    .toArray(JavaScriptFrameworkDTO[]::new);
+            var comparator = comparator(page.getSort());
+            // both sorts are stable, so equal frameworks stay in the order of their ids
+            if (parallelism.isParallel(sorted.length)) {
+                parallelism.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(sorted, comparator)));
+            } else {
+                Arrays.sort(sorted, comparator);
+            }
+            items = Arrays.stream(sorted)
+                    .skip(offset)
+                    .limit(page.getPageSize())
+                    .collect(Collectors.toList());
+        }
+
+        return new JavaScriptFrameworkSearchResultDTO(items, page.getPageNumber(), page.getPageSize(),
+                offset + items.size() < total, withTotal ? (long) total : null);
+    }
+
+    /**
+     * Positions of the frameworks matching all the criteria, the name is compared only for the frameworks
+     * matching the indexed criteria. The indexed criteria are combined a word of positions at a time,
+     * only the comparison of the names is split across the pool.
+     */
+    BitSet matching(JavaScriptFrameworkSearchCriteria criteria, SearchParallelism parallelism) {
+        var result = new BitSet(frameworks.length);
+        result.set(0, frameworks.length);
+
+        if (criteria.getVersion() != null && !criteria.getVersion().isEmpty()) {
+            var versioned = new BitSet(frameworks.length);
+            for (String version : criteria.getVersion()) {
+                var common = commonVersions.get(version);
+                if (common != null) {
+                    versioned.or(common);
+                } else {
+                    for (int position : versions.getOrDefault(version, NO_POSITIONS)) {
+                        versioned.set(position);
+                    }
+                }
+            }
+            result.and(versioned);
+        }
+        if (criteria.getHypeLevel() != null && !criteria.getHypeLevel().isEmpty()) {
+            result.and(union(criteria.getHypeLevel().stream().map(hypeLevels::get).collect(Collectors.toList())));
+        }
+        if (criteria.getDeprecationDate() != null) {
+            result.and(deprecatedBetween(criteria.getDeprecationDate(), criteria.getDeprecationDate().plusDays(1)));
+        }
+        if (criteria.getDeprecatedBefore() != null) {
+            result.and(deprecatedBetween(LocalDate.MIN, criteria.getDeprecatedBefore()));
+        }
+        if (criteria.getDeprecatedAfter() != null) {
+            result.and(deprecatedBetween(criteria.getDeprecatedAfter().plusDays(1), LocalDate.MAX));
+        }
+        if (criteria.getName() != null) {
+            var name = JavaScriptFramework.normalizeName(criteria.getName());
+            if (criteria.getNameMatch() == NameMatch.PREFIX) {
+                result.and(prefixed(name));
+            } else if (parallelism.isParallel(result.cardinality())) {
+                var matches = new long[(frameworks.length + Long.SIZE - 1) / Long.SIZE];
+                parallelism.invoke(new NameScan(result, name, matches, 0, frameworks.length, parallelism.chunkSize(frameworks.length)));
+                result = BitSet.valueOf(matches);
+            } else {
+                for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+                    if (!searchNames[i].contains(name)) {
+                        result.clear(i);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Candidates between two positions containing the name, split in halves until they are at most a chunk apart.
+     * The halves are split at multiples of 64, so every part sets the bits of whole words of the shared result
+     * that no other part writes.
+     */
+    private final class NameScan extends RecursiveAction {
+
+        private final BitSet candidates;
+
+        private final String name;
+
+        private final long[] matches;
+
+        private final int from;
+
+        private final int to;
+
+        private final int chunkSize;
+
+        NameScan(BitSet candidates, String name, long[] matches, int from, int to, int chunkSize) {
+            this.candidates = candidates;
+            this.name = name;
+            this.matches = matches;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = Math.max(Long.SIZE, chunkSize);
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = candidates.nextSetBit(from); i >= 0 && i < to; i = candidates.nextSetBit(i + 1)) {
+                    if (searchNames[i].contains(name)) {
+                        matches[i / Long.SIZE] |= 1L << i;
+                    }
+                }
+                return;
+            }
+
+            // the first half rounded up to whole words, still shorter than the range as it is longer than a word
+            int middle = from + (((to - from) / 2 + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+            var left = new NameScan(candidates, name, matches, from, middle, chunkSize);
+            left.fork();
+            new NameScan(candidates, name, matches, middle, to, chunkSize).compute();
+            left.join();
+        }
+    }
+
+    private BitSet prefixed(String prefix) {
+        var result = new BitSet(frameworks.length);
+        int low = 0;
+        int high = byName.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (searchNames[byName[middle]].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < byName.length && searchNames[byName[i]].startsWith(prefix); i++) {
+            result.set(byName[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @param from inclusive
+     * @param to exclusive
+     */
+    private BitSet deprecatedBetween(LocalDate from, LocalDate to) {
+        var result = new BitSet(frameworks.length);
+        for (int i = firstNotBefore(from); i < deprecationDates.length && deprecationDates[i].isBefore(to); i++) {
+            result.set(byDeprecation[i]);
+        }
+        return result;
+    }
+
+    private int firstNotBefore(LocalDate date) {
+        int low = 0;
+        int high = deprecationDates.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (deprecationDates[middle].isBefore(date)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstAfter(long id) {
+        int position = Arrays.binarySearch(ids, id);
+        return position < 0 ? -position - 1 : position + 1;
+    }
+
+    private static BitSet union(List<BitSet> sets) {
+        var result = new BitSet();
+        for (var set : sets) {
+            if (set != null) {
+                result.or(set);
+            }
+        }
+        return result;
+    }
+
+    private static Comparator<JavaScriptFrameworkDTO> comparator(Sort sort) {
+        Comparator<JavaScriptFrameworkDTO> result = null;
+        for (Sort.Order order : sort) {
+            var property = comparator(order.getProperty());
+            var directed = order.isAscending() ? property : property.reversed();
+            result = result == null ? directed : result.thenComparing(directed);
+        }
+        return result;
+    }
+
+    private static Comparator<JavaScriptFrameworkDTO> comparator(String property) {
+        switch (property) {
+            case "id":
+                return Comparator.comparing(JavaScriptFrameworkDTO::getId);
+            case "name":
+                return Comparator.comparing(JavaScriptFrameworkDTO::getName);
+            case "deprecationDate":
+                return Comparator.comparing(JavaScriptFrameworkDTO::getDeprecationDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "hypeLevel":
+                // stored by name, so the database orders the hype levels alphabetically
+                return Comparator.comparing((JavaScriptFrameworkDTO framework) -> framework.getHypeLevel() == null ? null : framework.getHypeLevel().name(),
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+            default:
+                throw new IllegalArgumentException("Cannot sort by " + property);
+        }
+    }
+
+    /**
+     * Growing array of positions
+     */
+    private static final class Positions {
+
+        private int[] values = new int[4];
+
+        private int size;
+
+        void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        BitSet toBitSet() {
+            var result = new BitSet();
+            for (int i = 0; i < size; i++) {
+                result.set(values[i]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.config.FrameworkProperties;
+import com.etnetera.hr.dto.JavaScriptFrameworkBatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkChangesDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkCollectionVersionDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPageDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchResultDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkStatsDTO;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Serves the reads from an immutable {@link JavaScriptFrameworkSnapshot} of all the frameworks, enabled by
+ * {@code frameworks.snapshot.enabled}. Writes go to the database and a new snapshot is swapped in once they commit.
+ * <p>
+ * The modifications of all instances are applied by the {@link JavaScriptFrameworkChangeFeed}, writes of this instance
+ * right after they commit. A write returns before the new snapshot is swapped in, so the writer never waits for it and
+ * writers don't queue behind each other. Until the catalog is loaded at startup reads go to the database.
+ * <p>
+ * Searches with many candidates can be split across a pool of {@code frameworks.snapshot.search-parallelism} threads.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "frameworks.snapshot.enabled", havingValue = "true")
+public class JavaScriptFrameworkSnapshotService implements JavaScriptFrameworkService, JavaScriptFrameworkChangeFeed.Listener, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JavaScriptFrameworkSnapshotService.class);
+
+    private static final int MIN_SEARCH_CHUNK_SIZE = 4096;
+
+    private final JavaScriptFrameworkServiceImpl delegate;
+
+    private final JavaScriptFrameworkRepository repository;
+
+    private final EntityManager entityManager;
+
+    // not read-only, so that the primary is read when reads are routed to a replica
+    private final TransactionTemplate transaction;
+
+    private final SearchParallelism searchParallelism;
+
+    private volatile JavaScriptFrameworkSnapshot snapshot;
+
+    public JavaScriptFrameworkSnapshotService(JavaScriptFrameworkServiceImpl delegate, JavaScriptFrameworkRepository repository,
+                                              EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                              JavaScriptFrameworkChangeFeed changeFeed, FrameworkProperties properties) {
+        this.delegate = delegate;
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.searchParallelism = searchParallelism(properties.getSnapshot());
+        changeFeed.addListener(this);
+    }
+
+    private static SearchParallelism searchParallelism(FrameworkProperties.Snapshot config) {
+        if (config.getSearchParallelism() <= 1) {
+            return SearchParallelism.SEQUENTIAL;
+        }
+        var pool = new ForkJoinPool(config.getSearchParallelism(), forkJoinPool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("framework-search-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        return new SearchParallelism(pool, config.getParallelThreshold(), MIN_SEARCH_CHUNK_SIZE);
+    }
+
+    /**
+     * Reads all the frameworks again, including the ones written without a modification number
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long start = System.nanoTime();
+        snapshot = transaction.execute(status -> {
+            var counter = repository.findChangeCounter();
+            var frameworks = new ArrayList<JavaScriptFrameworkDTO>();
+            try (var stream = repository.streamAll()) {
+                stream.forEach(framework -> {
+                    frameworks.add(new JavaScriptFrameworkDTO(framework));
+                    entityManager.detach(framework);
+                });
+            }
+            return JavaScriptFrameworkSnapshot.of(frameworks, counter.getSeq(), counter.getModifiedAt());
+        });
+
+        log.info("Snapshot of {} frameworks loaded in {} ms", snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Swaps in a new snapshot with the modifications it doesn't include yet
+     */
+    @Override
+    public synchronized void onChanges(List<JavaScriptFrameworkChange> changes, JavaScriptFrameworkCollectionVersionDTO version) {
+        var current = snapshot;
+        // the modifications committed before the load are read by it
+        if (current == null || version.getChangeSeq() <= current.getChangeSeq()) {
+            return;
+        }
+
+        var modified = new ArrayList<JavaScriptFrameworkDTO>();
+        var deleted = new ArrayList<Long>();
+        for (var change : changes) {
+            if (change.getChangeSeq() <= current.getChangeSeq()) {
+                continue;
+            }
+            if (change.isDeleted()) {
+                deleted.add(change.getFrameworkId());
+            } else {
+                modified.add(change.getFramework());
+            }
+        }
+        snapshot = current.apply(modified, deleted, version.getChangeSeq(), version.getLastModified());
+    }
+
+    @Override
+    public void destroy() {
+        searchParallelism.shutdown();
+    }
+
+    @Override
+    public boolean exists(String frameworkName) {
+        var current = snapshot;
+        return current == null ? delegate.exists(frameworkName) : current.byName(frameworkName).isPresent();
+    }
+
+    @Override
+    public JavaScriptFrameworkDTO createFramework(JavaScriptFrameworkDTO javascriptFrameworkDTO) {
+        return delegate.createFramework(javascriptFrameworkDTO);
+    }
+
+    @Override
+    public List<JavaScriptFrameworkDTO> findAllFrameworks() {
+        var current = snapshot;
+        return current == null ? delegate.findAllFrameworks() : current.all();
+    }
+
+    @Override
+    public JavaScriptFrameworkPageDTO findFrameworks(Long after, int size) {
+        var current = snapshot;
+        return current == null ? delegate.findFrameworks(after, size) : current.page(after, size);
+    }
+
+    @Override
+    public void streamAllFrameworks(Consumer<JavaScriptFrameworkDTO> consumer) {
+        var current = snapshot;
+        if (current == null) {
+            delegate.streamAllFrameworks(consumer);
+        } else {
+            current.all().forEach(consumer);
+        }
+    }
+
+    @Override
+    public Optional<JavaScriptFrameworkDTO> findFrameworkById(Long frameworkId) {
+        var current = snapshot;
+        return current == null ? delegate.findFrameworkById(frameworkId) : current.byId(frameworkId);
+    }
+
+    @Override
+    public JavaScriptFrameworkBatchDTO findFrameworks(Collection<Long> ids, Collection<String> names) {
+        var current = snapshot;
+        if (current == null) {
+            return delegate.findFrameworks(ids, names);
+        }
+
+        var found = new LinkedHashMap<Long, JavaScriptFrameworkDTO>();
+        var missingIds = new ArrayList<Long>();
+        var missingNames = new ArrayList<String>();
+        for (var id : ids) {
+            current.byId(id).ifPresentOrElse(framework -> found.putIfAbsent(framework.getId(), framework), () -> missingIds.add(id));
+        }
+        for (var name : names) {
+            current.byName(name).ifPresentOrElse(framework -> found.putIfAbsent(framework.getId(), framework), () -> missingNames.add(name));
+        }
+        return new JavaScriptFrameworkBatchDTO(new ArrayList<>(found.values()), missingIds, missingNames);
+    }
+
+    @Override
+    public Optional<Long> findRevision(Long frameworkId) {
+        var current = snapshot;
+        return current == null ? delegate.findRevision(frameworkId) : current.byId(frameworkId).map(JavaScriptFrameworkDTO::getRevision);
+    }
+
+    /**
+     * Version of the snapshot the reads are served from, so that the tag of the list matches its content
+     */
+    @Override
+    public JavaScriptFrameworkCollectionVersionDTO collectionVersion() {
+        var current = snapshot;
+        return current == null ? delegate.collectionVersion() : current.version();
+    }
+
+    @Override
+    public JavaScriptFrameworkChangesDTO findChanges(long since, int size) {
+        return delegate.findChanges(since, size);
+    }
+
+    @Override
+    public JavaScriptFrameworkStatsDTO stats(JavaScriptFrameworkSearchCriteria criteria) {
+        return delegate.stats(criteria);
+    }
+
+    @Override
+    public Long update(Long frameworkId, JavaScriptFrameworkDTO dto, Set<Long> expectedRevisions) {
+        return delegate.update(frameworkId, dto, expectedRevisions);
+    }
+
+    @Override
+    public Long patch(Long frameworkId, JavaScriptFrameworkPatchDTO patch, Set<Long> expectedRevisions) {
+        return delegate.patch(frameworkId, patch, expectedRevisions);
+    }
+
+    @Override
+    public void delete(Long frameworkId) {
+        delegate.delete(frameworkId);
+    }
+
+    @Override
+    public void addVersion(String name, String newVersion) {
+        delegate.addVersion(name, newVersion);
+    }
+
+    @Override
+    public JavaScriptFrameworkSearchResultDTO search(JavaScriptFrameworkSearchCriteria criteria, Pageable pageable, boolean withTotal) {
+        var current = snapshot;
+        if (current == null) {
+            return delegate.search(criteria, pageable, withTotal);
+        }
+        return current.search(criteria, JavaScriptFrameworkServiceImpl.searchPage(pageable), withTotal, searchParallelism);
+    }
+}
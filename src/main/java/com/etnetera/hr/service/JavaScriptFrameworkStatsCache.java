@@ -0,0 +1,51 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.config.FrameworkProperties;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Statistics of the frameworks by the search criteria they were computed for. Statistics are served as long as
+ * no modification has been committed since, the first read after a modification computes them again.
+ * Only the criteria which are read are recomputed, however many of them are cached.
+ */
+@Component
+public class JavaScriptFrameworkStatsCache {
+
+    private final Cache<JavaScriptFrameworkSearchCriteria, JavaScriptFrameworkStatsDTO> cache;
+
+    public JavaScriptFrameworkStatsCache(FrameworkProperties properties, MeterRegistry meterRegistry) {
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getStats().getCacheSize())
+                .recordStats()
+                .<JavaScriptFrameworkSearchCriteria, JavaScriptFrameworkStatsDTO>build(), "frameworks.stats");
+    }
+
+    /**
+     * @param criteria must not be modified once cached
+     * @param changeSeq last modification committed when the statistics are read
+     * @param loader computes the statistics including at least the modification {@code changeSeq}
+     */
+    public JavaScriptFrameworkStatsDTO get(JavaScriptFrameworkSearchCriteria criteria, long changeSeq, Supplier<JavaScriptFrameworkStatsDTO> loader) {
+        var cached = cache.getIfPresent(criteria);
+        if (cached != null && cached.getChangeSeq() >= changeSeq) {
+            return cached;
+        }
+
+        var computed = loader.get();
+        // a concurrent read may have computed newer statistics already
+        cache.asMap().merge(criteria, computed, (previous, current) -> current.getChangeSeq() >= previous.getChangeSeq() ? current : previous);
+        return computed;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,86 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.config.FrameworkProperties;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes tombstones of frameworks deleted longer than {@code frameworks.changes.tombstone-retention} ago,
+ * clients asking for changes older than the removed tombstones are told to read all the frameworks again
+ */
+@Component
+public class JavaScriptFrameworkTombstonePruner implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JavaScriptFrameworkTombstonePruner.class);
+
+    private final JavaScriptFrameworkRepository repository;
+
+    private final TransactionTemplate transaction;
+
+    private final Duration retention;
+
+    private final long pruneInterval;
+
+    private final ScheduledExecutorService pruner;
+
+    public JavaScriptFrameworkTombstonePruner(JavaScriptFrameworkRepository repository, PlatformTransactionManager transactionManager,
+                                              FrameworkProperties properties) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retention = properties.getChanges().getTombstoneRetention();
+        this.pruneInterval = properties.getChanges().getPruneInterval().toMillis();
+        this.pruner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "framework-tombstones");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        pruner.scheduleWithFixedDelay(this::pruneQuietly, pruneInterval, pruneInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Removes the tombstones older than the retention
+     * @return number of the removed tombstones
+     */
+    public int prune() {
+        return prune(Instant.now().minus(retention));
+    }
+
+    int prune(Instant deletedBefore) {
+        int removed = transaction.execute(status -> repository.pruneTombstones(deletedBefore));
+        if (removed > 0) {
+            log.info("Removed {} tombstones of frameworks deleted before {}", removed, deletedBefore);
+        }
+        return removed;
+    }
+
+    private void pruneQuietly() {
+        try {
+            prune();
+        } catch (RuntimeException e) {
+            // the next run removes them
+            log.warn("Tombstones of deleted frameworks could not be removed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pruner.shutdownNow();
+    }
+}
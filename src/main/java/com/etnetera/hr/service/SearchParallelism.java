@@ -0,0 +1,53 @@
+package com.etnetera.hr.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * How a snapshot search is evaluated: on the calling thread, or split across a bounded pool once it has at least
+ * {@code threshold} candidates. Both give the same results in the same order.
+ */
+final class SearchParallelism {
+
+    static final SearchParallelism SEQUENTIAL = new SearchParallelism(null, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+
+    private final int threshold;
+
+    private final int minChunkSize;
+
+    /**
+     * @param pool null to evaluate every search sequentially
+     * @param minChunkSize candidates below which a part of the search isn't split any further
+     */
+    SearchParallelism(ForkJoinPool pool, int threshold, int minChunkSize) {
+        this.pool = pool;
+        this.threshold = threshold;
+        this.minChunkSize = minChunkSize;
+    }
+
+    boolean isParallel(int candidates) {
+        return pool != null && candidates >= threshold;
+    }
+
+    /**
+     * Size of the parts a range of positions is split into, a few per worker so that the busy workers can be helped
+     */
+    int chunkSize(int size) {
+        return Math.max(minChunkSize, size / (pool.getParallelism() * 4));
+    }
+
+    /**
+     * Runs the task in the pool and waits for its result
+     */
+    <T> T invoke(ForkJoinTask<T> task) {
+        return pool.invoke(task);
+    }
+
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
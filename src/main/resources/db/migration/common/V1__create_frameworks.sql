@@ -0,0 +1,29 @@
+-- Portable between H2 and PostgreSQL, vendor specific indexes are in db/migration/<vendor>
+
+create sequence java_script_framework_seq start with 1 increment by 50;
+
+create table java_script_framework (
+    id               bigint       not null,
+    name             varchar(30)  not null,
+    search_name      varchar(30)  not null,
+    deprecation_date date,
+    hype_level       varchar(255),
+    revision         bigint       not null default 0,
+    constraint pk_java_script_framework primary key (id),
+    constraint uk_framework_name unique (name)
+);
+
+-- prefix searches and the name sort
+create index idx_framework_search_name on java_script_framework (search_name);
+create index idx_framework_hype_level on java_script_framework (hype_level);
+create index idx_framework_deprecation_date on java_script_framework (deprecation_date);
+
+create table java_script_framework_version (
+    java_script_framework_id bigint       not null,
+    version                  varchar(255) not null,
+    constraint uk_framework_version unique (java_script_framework_id, version),
+    constraint fk_framework_version_framework foreign key (java_script_framework_id) references java_script_framework (id)
+);
+
+-- the unique constraint serves loading the versions of a framework, the version filter needs the other order
+create index idx_framework_version_version on java_script_framework_version (version, java_script_framework_id);
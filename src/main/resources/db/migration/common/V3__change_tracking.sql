@@ -0,0 +1,30 @@
+-- Every modification takes the next number from the single counter row, the row stays locked until the commit,
+-- so the numbers are assigned in the order the modifications become visible
+
+create table java_script_framework_change_counter (
+    id          int       not null,
+    seq         bigint    not null,
+    modified_at timestamp not null,
+    constraint pk_framework_change_counter primary key (id)
+);
+
+insert into java_script_framework_change_counter (id, seq, modified_at)
+select 1, case when count(*) > 0 then 1 else 0 end, current_timestamp from java_script_framework;
+
+alter table java_script_framework add column change_seq bigint not null default 0;
+alter table java_script_framework add column last_modified timestamp;
+
+-- existing frameworks count as the first modification
+update java_script_framework set change_seq = 1, last_modified = current_timestamp;
+
+create index idx_framework_change_seq on java_script_framework (change_seq);
+
+create table java_script_framework_tombstone (
+    framework_id bigint      not null,
+    name         varchar(30) not null,
+    change_seq   bigint      not null,
+    deleted_at   timestamp   not null,
+    constraint pk_framework_tombstone primary key (framework_id)
+);
+
+create index idx_framework_tombstone_change_seq on java_script_framework_tombstone (change_seq);
@@ -0,0 +1,4 @@
+-- Tombstones numbered up to pruned_seq have been removed, a client which has seen fewer modifications
+-- may have missed a delete and must read all the frameworks again
+
+alter table java_script_framework_change_counter add column pruned_seq bigint not null default 0;
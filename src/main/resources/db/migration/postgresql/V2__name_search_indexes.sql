@@ -0,0 +1,6 @@
+-- a b-tree index in a non-C collation can't serve LIKE 'prefix%'
+create index idx_framework_search_name_pattern on java_script_framework (search_name varchar_pattern_ops);
+
+-- substring searches, LIKE '%part%' is answered from trigrams instead of scanning all names
+create extension if not exists pg_trgm;
+create index idx_framework_search_name_trgm on java_script_framework using gin (search_name gin_trgm_ops);
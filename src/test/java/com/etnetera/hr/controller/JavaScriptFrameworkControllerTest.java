@@ -1,29 +1,71 @@
 package com.etnetera.hr.controller;
 
+import com.etnetera.hr.config.RepresentationConfig;
 import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.dto.JavaScriptFrameworkBatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkChangesDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkCollectionVersionDTO;
 import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO.Item;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO.Status;
+import com.etnetera.hr.dto.JavaScriptFrameworkPageDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchResultDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkStatsDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkTombstoneDTO;
 import com.etnetera.hr.exception.JavascriptFrameworkDuplicateException;
 import com.etnetera.hr.exception.JavascriptFrameworkNotFoundException;
+import com.etnetera.hr.exception.JavascriptFrameworkPreconditionFailedException;
+import com.etnetera.hr.service.JavaScriptFrameworkChangeStream;
+import com.etnetera.hr.service.JavaScriptFrameworkImportService;
 import com.etnetera.hr.service.JavaScriptFrameworkService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -36,6 +78,12 @@ public class JavaScriptFrameworkControllerTest {
     @MockBean
     private JavaScriptFrameworkService service;
 
+    @MockBean
+    private JavaScriptFrameworkImportService importService;
+
+    @MockBean
+    private JavaScriptFrameworkChangeStream changeStream;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -47,24 +95,162 @@ public class JavaScriptFrameworkControllerTest {
             new JavaScriptFrameworkDTO(2L, "Angular", Set.of("14.0", "13.0", "12.0"), LocalDate.of(2025, 1, 1), HypeLevel.MEDIUM),
             new JavaScriptFrameworkDTO(3L, "Vue.js", Set.of("v3.2.37", "v3.2.36"), null, HypeLevel.LOW));
 
+    @Before
+    public void setUp() {
+        when(service.collectionVersion()).thenReturn(new JavaScriptFrameworkCollectionVersionDTO(1L, Instant.EPOCH));
+    }
+
     @Test
     public void testListEmptyFrameworks() throws Exception {
+
+        when(service.findFrameworks(any(), anyInt())).thenReturn(new JavaScriptFrameworkPageDTO(List.of(), null));
+
         this.mockMvc.perform(get("/api/v1/frameworks")).andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(content().json("[]"));
+                .andExpect(content().json("{\"items\": [], \"next\": null}"));
     }
 
     @Test
     public void testListFrameworks() throws Exception {
 
-        when(service.findAllFrameworks()).thenReturn(SAMPLE_DATA);
+        when(service.findFrameworks(any(), anyInt())).thenReturn(new JavaScriptFrameworkPageDTO(SAMPLE_DATA, null));
 
         this.mockMvc.perform(get("/api/v1/frameworks")).andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(3)))
-                .andExpect(jsonPath("$[0].name", is("React")))
-                .andExpect(jsonPath("$[0].version", hasItems("1.0")))
-                .andExpect(jsonPath("$[0].deprecationDate", is(LocalDate.now().toString())));
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.items[0].name", is("React")))
+                .andExpect(jsonPath("$.items[0].version", hasItems("1.0")))
+                .andExpect(jsonPath("$.items[0].deprecationDate", is(LocalDate.now().toString())));
+    }
+
+    @Test
+    public void testListFrameworksPage() throws Exception {
+
+        when(service.findFrameworks(eq(1L), anyInt())).thenReturn(new JavaScriptFrameworkPageDTO(SAMPLE_DATA.subList(1, 2), 2L));
+
+        this.mockMvc.perform(get("/api/v1/frameworks").param("after", "1").param("size", "100000")).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name", is("Angular")))
+                .andExpect(jsonPath("$.next", is(2)));
+
+        verify(service).findFrameworks(1L, JavaScriptFrameworkController.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    public void testFrameworksByIds() throws Exception {
+
+        when(service.findFrameworks(Set.of(1L, 2L, 9L), Set.of("Vue.js")))
+                .thenReturn(new JavaScriptFrameworkBatchDTO(SAMPLE_DATA, List.of(9L), List.of()));
+
+        this.mockMvc.perform(get("/api/v1/frameworks").param("ids", "1,2,9,1").param("names", "Vue.js")).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.missingIds", contains(9)))
+                .andExpect(jsonPath("$.missingNames", hasSize(0)));
+    }
+
+    @Test
+    public void testFrameworksByNames() throws Exception {
+
+        when(service.findFrameworks(Set.of(), Set.of("React", "Ember")))
+                .thenReturn(new JavaScriptFrameworkBatchDTO(SAMPLE_DATA.subList(0, 1), List.of(), List.of("Ember")));
+
+        this.mockMvc.perform(get("/api/v1/frameworks").param("names", "React", "Ember")).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name", is("React")))
+                .andExpect(jsonPath("$.missingNames", contains("Ember")));
+    }
+
+    @Test
+    public void testBatchFrameworks() throws Exception {
+
+        when(service.findFrameworks(Set.of(2L), Set.of()))
+                .thenReturn(new JavaScriptFrameworkBatchDTO(SAMPLE_DATA.subList(1, 2), List.of(), List.of()));
+
+        this.mockMvc.perform(post("/api/v1/frameworks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name", is("Angular")));
+    }
+
+    @Test
+    public void shouldRejectTooLargeBatch() throws Exception {
+
+        var ids = LongStream.rangeClosed(1, JavaScriptFrameworkController.MAX_BATCH_SIZE + 1).boxed().collect(Collectors.toList());
+
+        this.mockMvc.perform(post("/api/v1/frameworks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("ids", ids))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testStats() throws Exception {
+
+        when(service.stats(any())).thenReturn(new JavaScriptFrameworkStatsDTO(7, 3,
+                List.of(new JavaScriptFrameworkStatsDTO.HypeLevelCount(HypeLevel.LOW, 1), new JavaScriptFrameworkStatsDTO.HypeLevelCount(HypeLevel.HIGH, 2)),
+                List.of(new JavaScriptFrameworkStatsDTO.YearCount(null, 3)),
+                List.of(new JavaScriptFrameworkStatsDTO.VersionCount(1L, "React", 4))));
+
+        this.mockMvc.perform(get("/api/v1/frameworks/stats").param("hypeLevel", "LOW,HIGH").param("deprecatedBefore", "2020-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.byHypeLevel[1].hypeLevel", is("HIGH")))
+                .andExpect(jsonPath("$.byDeprecationYear[0].year", nullValue()))
+                .andExpect(jsonPath("$.mostVersioned[0].versions", is(4)));
+
+        var criteria = ArgumentCaptor.forClass(JavaScriptFrameworkSearchCriteria.class);
+        verify(service).stats(criteria.capture());
+        assertEquals(Set.of(HypeLevel.LOW, HypeLevel.HIGH), criteria.getValue().getHypeLevel());
+        assertEquals(LocalDate.of(2020, 1, 31), criteria.getValue().getDeprecatedBefore());
+    }
+
+    @Test
+    public void testSearchFrameworks() throws Exception {
+
+        when(service.search(any(), any(), anyBoolean()))
+                .thenReturn(new JavaScriptFrameworkSearchResultDTO(SAMPLE_DATA.subList(0, 1), 1, 100, true, null));
+
+        this.mockMvc.perform(get("/api/v1/frameworks/search").param("name", "re")
+                        .param("version", "1.0", "2.0").param("hypeLevel", "LOW,HIGH").param("deprecatedBefore", "2020-01-31")
+                        .param("page", "1").param("size", "5000").param("sort", "name,desc")).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.total", nullValue()));
+
+        var criteria = ArgumentCaptor.forClass(JavaScriptFrameworkSearchCriteria.class);
+        var pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(service).search(criteria.capture(), pageable.capture(), eq(false));
+        assertEquals("re", criteria.getValue().getName());
+        assertEquals(Set.of("1.0", "2.0"), criteria.getValue().getVersion());
+        assertEquals(Set.of(HypeLevel.LOW, HypeLevel.HIGH), criteria.getValue().getHypeLevel());
+        assertEquals(LocalDate.of(2020, 1, 31), criteria.getValue().getDeprecatedBefore());
+        assertEquals(1, pageable.getValue().getPageNumber());
+        assertEquals(100, pageable.getValue().getPageSize());
+        assertEquals(Sort.by(Sort.Direction.DESC, "name"), pageable.getValue().getSort());
+    }
+
+    @Test
+    public void testStreamFrameworks() throws Exception {
+
+        doAnswer(invocation -> {
+            SAMPLE_DATA.forEach(invocation.<Consumer<JavaScriptFrameworkDTO>>getArgument(0));
+            return null;
+        }).when(service).streamAllFrameworks(any());
+
+        MvcResult result = this.mockMvc.perform(get("/api/v1/frameworks").accept(JavaScriptFrameworkController.NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result)).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(JavaScriptFrameworkController.NDJSON_VALUE))
+                .andExpect(content().string(startsWith("{\"id\":1,\"name\":\"React\"")))
+                .andExpect(content().string(containsString("}\n{\"id\":2,\"name\":\"Angular\"")))
+                .andExpect(content().string(endsWith("}\n")));
     }
 
     @Test
@@ -82,6 +268,62 @@ public class JavaScriptFrameworkControllerTest {
                 .andExpect(jsonPath("$.deprecationDate", nullValue()));
     }
 
+    @Test
+    public void testImportFrameworksFromArray() throws Exception {
+
+        var imported = new ArrayList<String>();
+        when(importService.importFrameworks(any(), eq(true))).thenAnswer(invocation -> {
+            Iterator<JavaScriptFrameworkDTO> frameworks = invocation.getArgument(0);
+            frameworks.forEachRemaining(dto -> imported.add(dto.getName()));
+            return new JavaScriptFrameworkImportResultDTO(List.of(
+                    new Item(0, "React", Status.CREATED, 1L, null),
+                    new Item(1, "Angular", Status.DUPLICATE, 2L, "Framework already exists")));
+        });
+
+        this.mockMvc.perform(post("/api/v1/frameworks/bulk").param("upsert", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(SAMPLE_DATA.subList(0, 2)))).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.items[1].status", is("DUPLICATE")));
+
+        assertEquals(List.of("React", "Angular"), imported);
+    }
+
+    @Test
+    public void testImportFrameworksFromNdjson() throws Exception {
+
+        var imported = new ArrayList<String>();
+        when(importService.importFrameworks(any(), eq(false))).thenAnswer(invocation -> {
+            Iterator<JavaScriptFrameworkDTO> frameworks = invocation.getArgument(0);
+            frameworks.forEachRemaining(dto -> imported.add(dto.getName()));
+            return new JavaScriptFrameworkImportResultDTO(List.of());
+        });
+
+        this.mockMvc.perform(post("/api/v1/frameworks/bulk")
+                        .contentType(JavaScriptFrameworkController.NDJSON_VALUE)
+                        .content(objectMapper.writeValueAsString(SAMPLE_DATA.get(0)) + "\n" + objectMapper.writeValueAsString(SAMPLE_DATA.get(2)) + "\n"))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of("React", "Vue.js"), imported);
+    }
+
+    @Test
+    public void shouldRejectMalformedImport() throws Exception {
+
+        when(importService.importFrameworks(any(), anyBoolean())).thenAnswer(invocation -> {
+            Iterator<JavaScriptFrameworkDTO> frameworks = invocation.getArgument(0);
+            frameworks.forEachRemaining(dto -> { });
+            return new JavaScriptFrameworkImportResultDTO(List.of());
+        });
+
+        this.mockMvc.perform(post("/api/v1/frameworks/bulk")
+                        .contentType(JavaScriptFrameworkController.NDJSON_VALUE)
+                        .content("{\"name\": \"React\"}\n{\"name\": "))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testAddVersion() throws Exception {
 
@@ -108,7 +350,7 @@ public class JavaScriptFrameworkControllerTest {
     @Test
     public void shouldFailToUpdateNonExistingFramework() throws Exception {
 
-        doThrow(new JavascriptFrameworkNotFoundException()).when(service).update(anyLong(), Mockito.<JavaScriptFrameworkDTO>any());
+        doThrow(new JavascriptFrameworkNotFoundException()).when(service).update(anyLong(), Mockito.<JavaScriptFrameworkDTO>any(), any());
 
         this.mockMvc.perform(put("/api/v1/frameworks/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -125,6 +367,186 @@ public class JavaScriptFrameworkControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    public void shouldRejectUpdateOfModifiedFramework() throws Exception {
+
+        doThrow(new JavascriptFrameworkPreconditionFailedException("modified")).when(service).update(eq(1L), Mockito.<JavaScriptFrameworkDTO>any(), eq(Set.of(3L)));
+
+        this.mockMvc.perform(put("/api/v1/frameworks/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(SAMPLE_DATA.get(0))))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void shouldCompareIfMatchStrongly() throws Exception {
+
+        doThrow(new JavascriptFrameworkPreconditionFailedException("modified")).when(service).update(eq(1L), Mockito.<JavaScriptFrameworkDTO>any(), eq(Set.of(4L)));
+
+        this.mockMvc.perform(put("/api/v1/frameworks/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\", \"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(SAMPLE_DATA.get(0))))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void shouldTagUpdatedFramework() throws Exception {
+
+        when(service.update(eq(1L), Mockito.<JavaScriptFrameworkDTO>any(), eq(null))).thenReturn(4L);
+
+        this.mockMvc.perform(put("/api/v1/frameworks/1")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(SAMPLE_DATA.get(0))))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    public void shouldPatchOnlyPresentProperties() throws Exception {
+
+        var captor = ArgumentCaptor.forClass(JavaScriptFrameworkPatchDTO.class);
+        when(service.patch(eq(1L), captor.capture(), eq(Set.of(3L)))).thenReturn(4L);
+
+        this.mockMvc.perform(patch("/api/v1/frameworks/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(JavaScriptFrameworkController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"hypeLevel\": \"LOW\", \"deprecationDate\": null}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        var patch = captor.getValue();
+        assertEquals(HypeLevel.LOW, patch.getHypeLevel());
+        assertTrue(patch.hasDeprecationDate());
+        assertFalse(patch.hasName());
+        assertFalse(patch.hasVersion());
+    }
+
+    @Test
+    public void shouldRejectTooLongNameInPatch() throws Exception {
+
+        this.mockMvc.perform(patch("/api/v1/frameworks/1")
+                        .contentType(JavaScriptFrameworkController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"name\": \"" + "x".repeat(31) + "\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).patch(anyLong(), any(), any());
+    }
+
+    @Test
+    public void shouldResumeEventsAfterLastEventId() throws Exception {
+
+        when(changeStream.subscribe(5L)).thenReturn(new SseEmitter());
+
+        this.mockMvc.perform(get("/api/v1/frameworks/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "5"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeStream).subscribe(5L);
+    }
+
+    @Test
+    public void shouldTagFramework() throws Exception {
+
+        when(service.findFrameworkById(1L)).thenReturn(Optional.of(new JavaScriptFrameworkDTO(1L, "React", Set.of("1.0"), null, HypeLevel.HIGH, 7L)));
+
+        this.mockMvc.perform(get("/api/v1/frameworks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(jsonPath("$.revision", is(7)));
+    }
+
+    @Test
+    public void shouldNotLoadUnmodifiedFramework() throws Exception {
+
+        when(service.findRevision(1L)).thenReturn(Optional.of(7L));
+
+        this.mockMvc.perform(get("/api/v1/frameworks/1").header(HttpHeaders.IF_NONE_MATCH, "\"6\", W/\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(content().string(""));
+
+        verify(service, never()).findFrameworkById(anyLong());
+    }
+
+    @Test
+    public void shouldNotListUnmodifiedCollection() throws Exception {
+
+        when(service.collectionVersion()).thenReturn(new JavaScriptFrameworkCollectionVersionDTO(35L, Instant.parse("2024-05-01T10:15:30.500Z")));
+
+        this.mockMvc.perform(get("/api/v1/frameworks").header(HttpHeaders.IF_NONE_MATCH, "\"35\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Wed, 01 May 2024 10:15:30 GMT"));
+
+        this.mockMvc.perform(get("/api/v1/frameworks").header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:15:30 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).findFrameworks(any(), anyInt());
+    }
+
+    @Test
+    public void shouldListCollectionModifiedSince() throws Exception {
+
+        when(service.collectionVersion()).thenReturn(new JavaScriptFrameworkCollectionVersionDTO(35L, Instant.parse("2024-05-01T10:15:30Z")));
+        when(service.findFrameworks(null, JavaScriptFrameworkController.DEFAULT_PAGE_SIZE)).thenReturn(new JavaScriptFrameworkPageDTO(List.of(), null));
+
+        this.mockMvc.perform(get("/api/v1/frameworks").header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:15:29 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"35\""));
+
+        // If-None-Match takes precedence
+        this.mockMvc.perform(get("/api/v1/frameworks")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"34\"")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:15:30 GMT"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldListFrameworksInSmile() throws Exception {
+
+        when(service.findFrameworks(any(), anyInt())).thenReturn(new JavaScriptFrameworkPageDTO(SAMPLE_DATA, 3L));
+
+        var body = this.mockMvc.perform(get("/api/v1/frameworks").accept(RepresentationConfig.SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(RepresentationConfig.SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        var page = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertEquals(3, page.get("items").size());
+        assertEquals("Angular", page.get("items").get(1).get("name").asText());
+        assertEquals("MEDIUM", page.get("items").get(1).get("hypeLevel").asText());
+        assertEquals(3L, page.get("next").asLong());
+    }
+
+    @Test
+    public void shouldReturnChangesSince() throws Exception {
+
+        when(service.findChanges(10L, 2)).thenReturn(new JavaScriptFrameworkChangesDTO(
+                List.of(new JavaScriptFrameworkDTO(1L, "React", Set.of("18.0"), null, HypeLevel.HIGH)),
+                List.of(new JavaScriptFrameworkTombstoneDTO(2L, "Vue.js", Instant.parse("2024-05-01T10:15:30Z"))),
+                12L, true));
+
+        this.mockMvc.perform(get("/api/v1/frameworks/changes").param("since", "10").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name", is("React")))
+                .andExpect(jsonPath("$.deleted[0].id", is(2)))
+                .andExpect(jsonPath("$.deleted[0].name", is("Vue.js")))
+                .andExpect(jsonPath("$.next", is(12)))
+                .andExpect(jsonPath("$.hasMore", is(true)));
+    }
+
+    @Test
+    public void shouldRejectNegativeChangeNumber() throws Exception {
+
+        this.mockMvc.perform(get("/api/v1/frameworks/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).findChanges(anyLong(), anyInt());
+    }
+
     @Test
     public void shouldFailToCreateDuplicateVersion() throws Exception {
 
@@ -0,0 +1,130 @@
+package com.etnetera.hr.controller;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import com.etnetera.hr.service.JavaScriptFrameworkService;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * A body served from the cache doesn't reach the handler, a body written by the handler does
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:responses;DB_CLOSE_ON_EXIT=FALSE",
+        "frameworks.response-cache.time-to-live=1h"
+})
+@AutoConfigureMockMvc
+public class ResponseBodyCacheFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JavaScriptFrameworkService service;
+
+    @Autowired
+    private JavaScriptFrameworkRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @After
+    public void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    public void repeatedSearchShouldBeServedFromCacheUntilModified() throws Exception {
+
+        service.createFramework(new JavaScriptFrameworkDTO(null, "Vue.js", Set.of("3.0"), null, HypeLevel.HIGH));
+
+        var written = handled(get("/api/v1/frameworks/search?name=vue&size=10"));
+        // not published, so it isn't seen until the next modification
+        jdbcTemplate.update("insert into java_script_framework (id, name, search_name, hype_level, revision) values (1000, 'Vue 2', 'vue 2', 'LOW', 0)");
+        var cached = cached(get("/api/v1/frameworks/search?size=10&name=vue"));
+        assertEquals(written.getContentAsString(), cached.getContentAsString());
+
+        service.addVersion("Vue.js", "3.1");
+
+        this.mockMvc.perform(get("/api/v1/frameworks/search?name=vue&size=10"))
+                .andExpect(handler().handlerType(JavaScriptFrameworkController.class))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)));
+    }
+
+    @Test
+    public void listShouldBeCachedWithItsHeaders() throws Exception {
+
+        service.createFramework(new JavaScriptFrameworkDTO(null, "React", Set.of("18.0"), null, HypeLevel.HIGH));
+
+        var written = handled(get("/api/v1/frameworks"));
+        var cached = cached(get("/api/v1/frameworks"));
+
+        assertEquals(written.getContentAsString(), cached.getContentAsString());
+        assertEquals(written.getContentType(), cached.getContentType());
+        assertEquals(written.getHeader(HttpHeaders.ETAG), cached.getHeader(HttpHeaders.ETAG));
+        assertEquals(written.getHeader(HttpHeaders.LAST_MODIFIED), cached.getHeader(HttpHeaders.LAST_MODIFIED));
+
+        // conditional requests are answered by the handler
+        this.mockMvc.perform(get("/api/v1/frameworks").header(HttpHeaders.IF_NONE_MATCH, written.getHeader(HttpHeaders.ETAG)))
+                .andExpect(handler().handlerType(JavaScriptFrameworkController.class));
+    }
+
+    @Test
+    public void largeBodyShouldBeServedGzipped() throws Exception {
+
+        for (int i = 0; i < 50; i++) {
+            service.createFramework(new JavaScriptFrameworkDTO(null, "Framework " + i, Set.of("1." + i, "2." + i), null, HypeLevel.MEDIUM));
+        }
+
+        var written = handled(get("/api/v1/frameworks/search?size=50"));
+        var plain = cached(get("/api/v1/frameworks/search?size=50"));
+        var gzipped = cached(get("/api/v1/frameworks/search?size=50").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+
+        assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(written.getContentAsByteArray(), plain.getContentAsByteArray());
+        assertEquals("gzip", gzipped.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertArrayEquals(written.getContentAsByteArray(), in.readAllBytes());
+        }
+    }
+
+    private MockHttpServletResponse handled(RequestBuilder request) throws Exception {
+        return this.mockMvc.perform(request)
+                .andExpect(handler().handlerType(JavaScriptFrameworkController.class))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private MockHttpServletResponse cached(RequestBuilder request) throws Exception {
+        var result = this.mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        // answered by the filter, the dispatcher servlet is not reached
+        assertNull(result.getHandler());
+        return result.getResponse();
+    }
+}
@@ -0,0 +1,50 @@
+package com.etnetera.hr.dto;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The streaming serializer has to write the same JSON as the bean serialization it replaces
+ */
+public class JavaScriptFrameworkDTOSerializerTest {
+
+    private static final List<JavaScriptFrameworkDTO> FRAMEWORKS = List.of(
+            new JavaScriptFrameworkDTO(1L, "React", Set.of("17.0", "18.0", "18.2"), LocalDate.of(2030, 12, 31), HypeLevel.HIGH, 3L),
+            new JavaScriptFrameworkDTO(2L, "Vue \"3\"", Set.of(), null, null, null),
+            new JavaScriptFrameworkDTO(null, "Ember", null, LocalDate.of(2020, 2, 29), HypeLevel.NONE));
+
+    @Test
+    public void shouldWriteSameJsonAsBeanSerialization() throws Exception {
+
+        for (boolean timestamps : new boolean[]{false, true}) {
+            var bean = mapper(timestamps, false);
+            var streaming = mapper(timestamps, true);
+
+            assertEquals(bean.writeValueAsString(FRAMEWORKS), streaming.writeValueAsString(FRAMEWORKS));
+            assertEquals(bean.writeValueAsString(new JavaScriptFrameworkPageDTO(FRAMEWORKS, 2L)),
+                    streaming.writeValueAsString(new JavaScriptFrameworkPageDTO(FRAMEWORKS, 2L)));
+        }
+    }
+
+    private static ObjectMapper mapper(boolean timestamps, boolean streaming) {
+        var builder = Jackson2ObjectMapperBuilder.json();
+        if (timestamps) {
+            builder.featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        } else {
+            builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        }
+        if (streaming) {
+            builder.serializerByType(JavaScriptFrameworkDTO.class, new JavaScriptFrameworkDTOSerializer());
+        }
+        return builder.build();
+    }
+}
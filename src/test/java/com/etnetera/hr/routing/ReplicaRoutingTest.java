@@ -0,0 +1,147 @@
+package com.etnetera.hr.routing;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.service.JavaScriptFrameworkService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Two embedded databases stand in for the primary and the replica, nothing is replicated between them
+ * so it's visible where each read went
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_ON_EXIT=FALSE",
+        "frameworks.replica.enabled=true",
+        "frameworks.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "frameworks.replica.username=sa",
+        "frameworks.replica.read-your-writes=1m"
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private JavaScriptFrameworkService service;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Before
+    public void setUp() {
+        // the replica would get its schema from the primary
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/common").load().migrate();
+    }
+
+    @After
+    public void tearDown() {
+        for (DataSource dataSource : new DataSource[]{primaryDataSource, replicaDataSource}) {
+            var jdbc = new JdbcTemplate(dataSource);
+            jdbc.update("delete from java_script_framework_version");
+            jdbc.update("delete from java_script_framework");
+        }
+    }
+
+    @Test
+    public void readOnlyTransactionsShouldGoToReplica() {
+
+        service.createFramework(new JavaScriptFrameworkDTO(null, "React", Set.of("18.0"), null, HypeLevel.HIGH));
+
+        assertEquals(Integer.valueOf(1), new JdbcTemplate(primaryDataSource).queryForObject("select count(*) from java_script_framework", Integer.class));
+        assertTrue(service.findAllFrameworks().isEmpty());
+
+        new JdbcTemplate(replicaDataSource).update("insert into java_script_framework (id, name, search_name, hype_level, revision) values (1, 'Vue.js', 'vue.js', 'LOW', 0)");
+        assertEquals("Vue.js", service.findAllFrameworks().get(0).getName());
+    }
+
+    @Test
+    public void replicaReadsShouldNotBeCached() {
+
+        var replica = new JdbcTemplate(replicaDataSource);
+        replica.update("insert into java_script_framework (id, name, search_name, hype_level, revision) values (1, 'Vue.js', 'vue.js', 'LOW', 0)");
+        assertEquals("Vue.js", service.findFrameworkById(1L).orElseThrow().getName());
+
+        replica.update("delete from java_script_framework");
+        assertTrue(service.findFrameworkById(1L).isEmpty());
+    }
+
+    @Test
+    public void failedWriteShouldNotRouteReadsToPrimary() throws Exception {
+
+        this.mockMvc.perform(delete("/api/v1/frameworks/999"))
+                .andExpect(status().isNotFound())
+                .andExpect(cookie().doesNotExist(ReadYourWrites.COOKIE));
+    }
+
+    @Test
+    public void bulkImportAndWritesWithoutBodyShouldRouteReadsToPrimary() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/frameworks/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"React\",\"hypeLevel\":\"HIGH\"}\n{\"name\":\"Vue.js\",\"hypeLevel\":\"LOW\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE));
+
+        this.mockMvc.perform(post("/api/v1/frameworks/React/versions/18.0"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE));
+    }
+
+    @Test
+    public void clientShouldReadItsOwnWritesFromPrimary() throws Exception {
+
+        var cookie = this.mockMvc.perform(post("/api/v1/frameworks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new JavaScriptFrameworkDTO(null, "Angular", Set.of("14.0"), null, HypeLevel.MEDIUM))))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWrites.COOKIE);
+
+        this.mockMvc.perform(get("/api/v1/frameworks").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)));
+
+        this.mockMvc.perform(get("/api/v1/frameworks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+
+        this.mockMvc.perform(get("/api/v1/frameworks").cookie(new Cookie(ReadYourWrites.COOKIE, "0")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+    }
+}
@@ -0,0 +1,176 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.exception.JavascriptFrameworkDuplicateException;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Subscribes to the change stream over HTTP and checks what is written to the subscriber
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:events;DB_CLOSE_ON_EXIT=FALSE",
+        "frameworks.events.history-size=3",
+        "frameworks.events.heartbeat=100ms"
+})
+@AutoConfigureMockMvc
+public class JavaScriptFrameworkChangeStreamTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JavaScriptFrameworkService service;
+
+    @Autowired
+    private JavaScriptFrameworkRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @After
+    public void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    public void shouldStreamCommittedChanges() throws Exception {
+
+        var events = subscribe(null);
+
+        // modifications read by the same poll are coalesced, so each one is awaited before the next
+        var react = service.createFramework(new JavaScriptFrameworkDTO(null, "React", Set.of("18.0"), null, HypeLevel.HIGH));
+        await(events, content -> content.contains("\"type\":\"CREATED\""));
+        try {
+            service.createFramework(new JavaScriptFrameworkDTO(null, "React", Set.of(), null, HypeLevel.LOW));
+        } catch (JavascriptFrameworkDuplicateException e) {
+            // rolled back, nothing is streamed
+        }
+        service.addVersion("React", "18.1");
+        await(events, content -> content.contains("\"type\":\"UPDATED\""));
+        service.delete(react.getId());
+
+        await(events, content -> content.contains("\"type\":\"DELETED\""));
+        var content = events.getContentAsString();
+        assertTrue(content.contains("event:change"));
+        assertEquals(content.indexOf("\"type\":\"CREATED\""), content.lastIndexOf("\"type\":\"CREATED\""));
+    }
+
+    @Test
+    public void shouldStreamModificationsOfOtherInstances() throws Exception {
+
+        var events = subscribe(null);
+
+        // committed by another instance, streamed by the periodic poll of the change log
+        long changeSeq = saveAsOtherInstance("Svelte");
+
+        await(events, content -> content.contains("id:" + changeSeq));
+        assertTrue(events.getContentAsString().contains("\"name\":\"Svelte\""));
+    }
+
+    @Test
+    public void shouldResumeAfterLastEventId() throws Exception {
+
+        service.createFramework(new JavaScriptFrameworkDTO(null, "Vue.js", Set.of(), null, HypeLevel.LOW));
+        long resumeAfter = service.collectionVersion().getChangeSeq();
+        service.addVersion("Vue.js", "3.0");
+
+        var events = subscribe(resumeAfter);
+
+        await(events, content -> content.contains("id:" + (resumeAfter + 1)));
+        assertFalse(events.getContentAsString().contains("id:" + resumeAfter + "\n"));
+        assertFalse(events.getContentAsString().contains("event:reset"));
+    }
+
+    @Test
+    public void shouldResumeWithModificationsOfOtherInstances() throws Exception {
+
+        long resumeAfter = service.collectionVersion().getChangeSeq();
+        long changeSeq = saveAsOtherInstance("Svelte");
+
+        var events = subscribe(resumeAfter);
+
+        await(events, content -> content.contains("id:" + changeSeq));
+        assertTrue(events.getContentAsString().contains("\"name\":\"Svelte\""));
+    }
+
+    @Test
+    public void shouldResetSubscriberWhichMissedEvents() throws Exception {
+
+        long missed = service.collectionVersion().getChangeSeq();
+        for (int i = 0; i < 4; i++) {
+            service.createFramework(new JavaScriptFrameworkDTO(null, "Framework " + i, Set.of(), null, HypeLevel.LOW));
+        }
+
+        var events = subscribe(missed);
+
+        await(events, content -> content.contains("event:reset"));
+    }
+
+    @Test
+    public void shouldSendHeartbeats() throws Exception {
+
+        await(subscribe(null), content -> content.contains(":heartbeat"));
+    }
+
+    /**
+     * Writes a framework the way another instance does, without polling the change feed of this one
+     */
+    private long saveAsOtherInstance(String name) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            var now = Instant.now();
+            long changeSeq = repository.nextChangeSeq(1, now);
+            var framework = new JavaScriptFramework(name, new HashSet<>(Set.of("4.0")), null, HypeLevel.MEDIUM);
+            framework.markModified(changeSeq, now);
+            repository.save(framework);
+            return changeSeq;
+        });
+    }
+
+    private MockHttpServletResponse subscribe(Long lastEventId) throws Exception {
+        var request = get("/api/v1/frameworks/events").accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return this.mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private static void await(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.test(response.getContentAsString())) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Expected event not received: " + response.getContentAsString());
+            }
+            Thread.sleep(20);
+        }
+    }
+}
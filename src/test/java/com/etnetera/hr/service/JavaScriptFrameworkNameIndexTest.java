@@ -0,0 +1,124 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.config.FrameworkProperties;
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.data.JavaScriptFrameworkTombstone;
+import com.etnetera.hr.dto.JavaScriptFrameworkCollectionVersionDTO;
+import com.etnetera.hr.repository.JavaScriptFrameworkChangeCounter;
+import com.etnetera.hr.repository.JavaScriptFrameworkName;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JavaScriptFrameworkNameIndexTest {
+
+    @Test
+    public void shouldFindCandidatesContainingText() {
+
+        var index = createIndex(10);
+
+        assertEquals(Optional.of(Set.of(1L, 2L, 5L)), index.candidates("REACT"));
+        assertEquals(Optional.of(Set.of(2L)), index.candidates("prea"));
+        assertEquals(Optional.of(Set.of(5L)), index.candidates("t nat"));
+        assertEquals(Optional.of(Set.of()), index.candidates("ember"));
+    }
+
+    @Test
+    public void shouldNotNarrowDownShortText() {
+
+        assertEquals(Optional.empty(), createIndex(10).candidates("re"));
+    }
+
+    @Test
+    public void shouldFallBackWhenTextIsNotSelective() {
+
+        assertEquals(Optional.empty(), createIndex(2).candidates("react"));
+    }
+
+    @Test
+    public void shouldApplyModificationsOfAllInstances() {
+
+        var repository = repository();
+        var index = createIndex(repository, 10);
+
+        index.onChanges(List.of(
+                JavaScriptFrameworkChange.modified(framework(3L, "AngularJS", 5)),
+                JavaScriptFrameworkChange.modified(framework(6L, "Ember", 6)),
+                JavaScriptFrameworkChange.deleted(new JavaScriptFrameworkTombstone(4L, "Vue.js", 7, Instant.now()))),
+                new JavaScriptFrameworkCollectionVersionDTO(7, Instant.now()));
+
+        assertEquals(Optional.of(Set.of(3L)), index.candidates("rjs"));
+        assertEquals(Optional.of(Set.of(3L)), index.candidates("angular"));
+        assertEquals(Optional.of(Set.of()), index.candidates("vue"));
+        assertEquals(Optional.of(Set.of(6L)), index.candidates("ember"));
+        // read once by the build, searches don't touch the database
+        verify(repository).findChangeCounter();
+    }
+
+    @Test
+    public void shouldSkipModificationsReadByTheBuild() {
+
+        var index = createIndex(repository(), 10);
+
+        index.onChanges(List.of(JavaScriptFrameworkChange.modified(framework(6L, "Ember", 0))),
+                new JavaScriptFrameworkCollectionVersionDTO(0, Instant.EPOCH));
+
+        assertEquals(Optional.of(Set.of()), index.candidates("ember"));
+    }
+
+    private static JavaScriptFrameworkNameIndex createIndex(int maxCandidates) {
+        return createIndex(repository(), maxCandidates);
+    }
+
+    private static JavaScriptFrameworkNameIndex createIndex(JavaScriptFrameworkRepository repository, int maxCandidates) {
+        var properties = new FrameworkProperties();
+        properties.getSearch().getNameIndex().setEnabled(true);
+        properties.getSearch().getNameIndex().setMaxCandidates(maxCandidates);
+
+        var index = new JavaScriptFrameworkNameIndex(repository, mock(PlatformTransactionManager.class),
+                mock(JavaScriptFrameworkChangeFeed.class), properties);
+        index.build();
+        return index;
+    }
+
+    private static JavaScriptFrameworkRepository repository() {
+        var repository = mock(JavaScriptFrameworkRepository.class);
+        when(repository.findChangeCounter()).thenReturn(new JavaScriptFrameworkChangeCounter(0, Instant.EPOCH));
+        when(repository.streamNames()).thenReturn(Stream.of(
+                name(1L, "React"), name(2L, "Preact"), name(3L, "Angular"), name(4L, "Vue.js"), name(5L, "React Native")));
+        return repository;
+    }
+
+    private static JavaScriptFramework framework(Long id, String name, long changeSeq) {
+        var framework = new JavaScriptFramework(name, Set.of(), null, HypeLevel.NONE);
+        framework.setId(id);
+        framework.markModified(changeSeq, Instant.now());
+        return framework;
+    }
+
+    private static JavaScriptFrameworkName name(Long id, String name) {
+        return new JavaScriptFrameworkName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.NameMatch;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.exception.JavascriptFrameworkDuplicateException;
+import com.etnetera.hr.exception.JavascriptFrameworkNotFoundException;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Validates the migrated schema and runs the SQL of the PostgreSQL dialect against H2 in its PostgreSQL mode
+ * as a stand-in for the postgres profile. The dialect lists the sequences from the PostgreSQL catalog,
+ * a view of the H2 sequences in a schema of its own stands in for it. The backslashes escape the semicolons first
+ * in the properties and then in the URL.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:postgres;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE"
+                + ";INIT=create schema if not exists pg_catalog\\\\;create view if not exists pg_catalog.pg_class as"
+                + " select sequence_name relname, 'S' relkind from information_schema.sequences"
+                + "\\\\;set schema_search_path public,pg_catalog",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQL95Dialect"
+})
+public class JavaScriptFrameworkPostgresModeTest {
+
+    @Autowired
+    private JavaScriptFrameworkService service;
+
+    @Autowired
+    private JavaScriptFrameworkRepository repository;
+
+    @After
+    public void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    public void shouldCreateSearchAndAppendVersions() {
+
+        var react = service.createFramework(new JavaScriptFrameworkDTO(null, "React", Set.of("18.0"), null, HypeLevel.HIGH));
+        service.createFramework(new JavaScriptFrameworkDTO(null, "Preact", Set.of("10.0"), LocalDate.of(2030, 1, 1), HypeLevel.LOW));
+
+        service.addVersion("React", "18.1");
+        assertEquals(Set.of("18.0", "18.1"), service.findFrameworkById(react.getId()).orElseThrow().getVersion());
+
+        var criteria = new JavaScriptFrameworkSearchCriteria();
+        criteria.setName("react");
+        criteria.setNameMatch(NameMatch.CONTAINS);
+        criteria.setVersion(Set.of("18.1", "10.0"));
+        assertEquals(List.of("Preact", "React"), names(criteria));
+
+        criteria.setHypeLevel(Set.of(HypeLevel.HIGH));
+        assertEquals(List.of("React"), names(criteria));
+    }
+
+    @Test
+    public void shouldRecognizeConstraintViolations() {
+
+        service.createFramework(new JavaScriptFrameworkDTO(null, "Vue.js", Set.of("3.0"), null, HypeLevel.MEDIUM));
+
+        try {
+            service.createFramework(new JavaScriptFrameworkDTO(null, "Vue.js", Set.of(), null, HypeLevel.LOW));
+            fail("Duplicate framework was created");
+        } catch (JavascriptFrameworkDuplicateException e) {
+            // expected
+        }
+        try {
+            service.addVersion("Vue.js", "3.0");
+            fail("Duplicate version was added");
+        } catch (JavascriptFrameworkDuplicateException e) {
+            // expected
+        }
+        try {
+            service.addVersion("Svelte", "1.0");
+            fail("Version of a missing framework was added");
+        } catch (JavascriptFrameworkNotFoundException e) {
+            // expected
+        }
+    }
+
+    private List<String> names(JavaScriptFrameworkSearchCriteria criteria) {
+        return service.search(criteria, PageRequest.of(0, 10, Sort.by("name")), false).getItems().stream()
+                .map(JavaScriptFrameworkDTO::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,612 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.JavaScriptFramework;
+import com.etnetera.hr.data.NameMatch;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO.Item;
+import com.etnetera.hr.dto.JavaScriptFrameworkImportResultDTO.Status;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.dto.JavaScriptFrameworkStatsDTO;
+import com.etnetera.hr.exception.JavascriptFrameworkDuplicateException;
+import com.etnetera.hr.exception.JavascriptFrameworkPreconditionFailedException;
+import com.etnetera.hr.exception.JavascriptFrameworkResyncRequiredException;
+import com.etnetera.hr.metrics.StatementCounter;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import com.etnetera.hr.repository.JavaScriptFrameworkTombstoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the service against the embedded database and checks how many statements each read path needs
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "frameworks.bulk.chunk-size=2",
+        // concurrent writers of the same framework wait for its row lock
+        "spring.datasource.url=jdbc:h2:mem:integration;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class JavaScriptFrameworkServiceIntegrationTest {
+
+    private static final int FRAMEWORK_COUNT = 30;
+
+    @Autowired
+    private JavaScriptFrameworkService service;
+
+    @Autowired
+    private JavaScriptFrameworkRepository repository;
+
+    @Autowired
+    private JavaScriptFrameworkTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JavaScriptFrameworkImportService importService;
+
+    @Autowired
+    private JavaScriptFrameworkCache cache;
+
+    @Autowired
+    private JavaScriptFrameworkTombstonePruner pruner;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // its polls after every write would be counted with the statements of the service
+    @MockBean
+    private JavaScriptFrameworkChangeFeed changeFeed;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        cache.invalidateAll();
+        repository.saveAll(IntStream.rangeClosed(1, FRAMEWORK_COUNT)
+                .mapToObj(i -> new JavaScriptFramework("Framework " + i, new HashSet<>(Set.of(i + ".0", i + ".1", i + ".2")), null, HypeLevel.LOW))
+                .collect(Collectors.toList()));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @After
+    public void tearDown() {
+        repository.deleteAll();
+        tombstoneRepository.deleteAll();
+    }
+
+    @Test
+    public void listShouldLoadVersionsInOneBatch() {
+
+        var page = service.findFrameworks(null, 100);
+
+        assertEquals(FRAMEWORK_COUNT, page.getItems().size());
+        assertEquals(Set.of("1.0", "1.1", "1.2"), page.getItems().get(0).getVersion());
+        assertStatementCount(2);
+    }
+
+    @Test
+    public void findAllShouldLoadVersionsInOneBatch() {
+
+        var frameworks = service.findAllFrameworks();
+
+        assertEquals(FRAMEWORK_COUNT, frameworks.size());
+        assertStatementCount(2);
+    }
+
+    @Test
+    public void searchShouldLoadVersionsInOneBatch() {
+
+        var frameworks = service.search(criteria("framework", null, HypeLevel.LOW), PageRequest.of(0, 100), false).getItems();
+
+        assertEquals(FRAMEWORK_COUNT, frameworks.size());
+        frameworks.forEach(dto -> assertEquals(3, dto.getVersion().size()));
+        assertStatementCount(2);
+    }
+
+    @Test
+    public void searchShouldMatchNamePrefix() {
+
+        repository.save(new JavaScriptFramework("Frame_work", new HashSet<>(), null, HypeLevel.LOW));
+
+        assertEquals(FRAMEWORK_COUNT + 1, countMatches("FRAME", NameMatch.PREFIX));
+        assertEquals(11, countMatches("framework 1", NameMatch.PREFIX));
+        assertEquals(0, countMatches("work", NameMatch.PREFIX));
+        // wildcards are matched literally
+        assertEquals(1, countMatches("frame_", NameMatch.PREFIX));
+        assertEquals(0, countMatches("%work", NameMatch.CONTAINS));
+    }
+
+    @Test
+    public void searchShouldPageWithoutOverlap() {
+
+        var sort = Sort.by(Sort.Direction.DESC, "hypeLevel");
+        var first = service.search(new JavaScriptFrameworkSearchCriteria(), PageRequest.of(0, 20, sort), false);
+        var second = service.search(new JavaScriptFrameworkSearchCriteria(), PageRequest.of(1, 20, sort), false);
+
+        assertTrue(first.isHasNext());
+        assertFalse(second.isHasNext());
+        assertNull(first.getTotal());
+        assertEquals(10, second.getItems().size());
+
+        var ids = new HashSet<Long>();
+        first.getItems().forEach(dto -> ids.add(dto.getId()));
+        second.getItems().forEach(dto -> ids.add(dto.getId()));
+        assertEquals(FRAMEWORK_COUNT, ids.size());
+    }
+
+    @Test
+    public void searchShouldCountOnlyOnRequest() {
+
+        var page = service.search(criteria("framework 1", NameMatch.PREFIX), PageRequest.of(0, 5, Sort.by("name")), true);
+
+        assertEquals(Long.valueOf(11), page.getTotal());
+        assertEquals("Framework 1", page.getItems().get(0).getName());
+        assertTrue(page.isHasNext());
+
+        statistics.clear();
+        service.search(criteria("framework 1", NameMatch.PREFIX), PageRequest.of(0, 5), false);
+        assertStatementCount(2);
+    }
+
+    @Test
+    public void searchShouldBeTimedAndCountStatements() {
+
+        var rows = meterRegistry.find("frameworks.repository.rows").tag("method", "findSlice").summary();
+        double before = rows == null ? 0 : rows.totalAmount();
+
+        StatementCounter.start();
+        service.search(criteria("framework 1", NameMatch.PREFIX), PageRequest.of(0, 5), false);
+
+        assertEquals(2, StatementCounter.stop());
+        assertEquals(5, meterRegistry.get("frameworks.repository.rows").tag("method", "findSlice").summary().totalAmount() - before, 0);
+        assertTrue(meterRegistry.get("frameworks.repository").tag("method", "findSlice").timer().count() > 0);
+    }
+
+    @Test
+    public void findByIdShouldFetchVersionsWithTheFramework() {
+
+        var id = repository.findByName("Framework 7").orElseThrow().getId();
+        statistics.clear();
+
+        var framework = service.findFrameworkById(id).orElseThrow();
+
+        assertEquals(Set.of("7.0", "7.1", "7.2"), framework.getVersion());
+        assertStatementCount(1);
+    }
+
+    @Test
+    public void streamShouldUseSingleQuery() {
+
+        var frameworks = new ArrayList<String>();
+        service.streamAllFrameworks(dto -> {
+            assertEquals(3, dto.getVersion().size());
+            frameworks.add(dto.getName());
+        });
+
+        assertEquals(FRAMEWORK_COUNT, frameworks.size());
+        assertStatementCount(1);
+    }
+
+    @Test
+    public void importShouldReportEveryFramework() {
+
+        var result = importService.importFrameworks(List.of(
+                new JavaScriptFrameworkDTO(null, "Imported 1", Set.of("1.0"), null, HypeLevel.LOW),
+                new JavaScriptFrameworkDTO(null, "Framework 1", Set.of("1.0"), null, HypeLevel.LOW),
+                new JavaScriptFrameworkDTO(null, "Imported 1", Set.of(), null, HypeLevel.LOW),
+                new JavaScriptFrameworkDTO(null, "", null, null, null),
+                new JavaScriptFrameworkDTO(null, "Imported 2", Set.of("2.0", "2.1"), null, HypeLevel.HIGH)).iterator(), false);
+
+        assertEquals(List.of(Status.CREATED, Status.DUPLICATE, Status.DUPLICATE, Status.INVALID, Status.CREATED),
+                result.getItems().stream().map(Item::getStatus).collect(Collectors.toList()));
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(Set.of("2.0", "2.1"), repository.findByName("Imported 2").orElseThrow().getVersion());
+        assertEquals(HypeLevel.LOW, repository.findByName("Framework 1").orElseThrow().getHypeLevel());
+    }
+
+    @Test
+    public void importShouldOverwriteExistingFrameworksOnUpsert() {
+
+        var result = importService.importFrameworks(List.of(
+                new JavaScriptFrameworkDTO(null, "Framework 1", Set.of("9.0"), null, HypeLevel.INSANE),
+                new JavaScriptFrameworkDTO(null, "Imported 1", Set.of("1.0"), null, HypeLevel.LOW)).iterator(), true);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getCreated());
+
+        var updated = repository.findByName("Framework 1").orElseThrow();
+        assertEquals(HypeLevel.INSANE, updated.getHypeLevel());
+        assertEquals(Set.of("9.0"), updated.getVersion());
+    }
+
+    @Test
+    public void parallelCreatesShouldYieldOneFrameworkAndConflicts() throws Exception {
+
+        int threads = 8;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+
+        try {
+            var results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        service.createFramework(new JavaScriptFrameworkDTO(null, "Contended", Set.of("1.0"), null, HypeLevel.LOW));
+                        return true;
+                    } catch (JavascriptFrameworkDuplicateException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            // anything but a success or a duplicate fails the test through Future.get
+            int created = 0;
+            for (var result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    created++;
+                }
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(service.exists("Contended"));
+    }
+
+    @Test
+    public void parallelAppendsShouldKeepEveryVersion() throws Exception {
+
+        int threads = 8;
+        int versionsPerThread = 25;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+
+        try {
+            var results = new ArrayList<Future<?>>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int v = 0; v < versionsPerThread; v++) {
+                        service.addVersion("Framework 5", "parallel-" + thread + "." + v);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (var result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var framework = service.findFrameworkById(repository.findIdByName("Framework 5").orElseThrow()).orElseThrow();
+        assertEquals(3 + threads * versionsPerThread, framework.getVersion().size());
+        assertEquals(Long.valueOf(threads * versionsPerThread), framework.getRevision());
+    }
+
+    @Test
+    public void parallelAppendsOfTheSameVersionShouldYieldOneVersionAndConflicts() throws Exception {
+
+        int threads = 8;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+
+        int added = 0;
+        try {
+            var results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        service.addVersion("Framework 6", "contended");
+                        return true;
+                    } catch (JavascriptFrameworkDuplicateException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            for (var result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    added++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, added);
+        assertTrue(repository.findByName("Framework 6").orElseThrow().getVersion().contains("contended"));
+    }
+
+    @Test(expected = JavascriptFrameworkDuplicateException.class)
+    public void updateShouldRejectDuplicateName() {
+
+        var framework = repository.findByName("Framework 2").orElseThrow();
+
+        service.update(framework.getId(), new JavaScriptFrameworkDTO(null, "Framework 1", Set.of(), null, HypeLevel.LOW), null);
+    }
+
+    @Test
+    public void searchShouldCombineMultiValueAndRangeFilters() {
+
+        repository.save(new JavaScriptFramework("Deprecated", new HashSet<>(Set.of("1.0", "2.0")), LocalDate.of(2020, 1, 1), HypeLevel.HIGH));
+        repository.save(new JavaScriptFramework("Abandoned", new HashSet<>(Set.of("1.0")), LocalDate.of(2015, 1, 1), HypeLevel.NONE));
+
+        var criteria = new JavaScriptFrameworkSearchCriteria();
+        criteria.setVersion(Set.of("1.0", "2.0", "3.0"));
+        criteria.setHypeLevel(Set.of(HypeLevel.LOW, HypeLevel.HIGH));
+        statistics.clear();
+
+        // frameworks with several of the versions are returned only once
+        var frameworks = search(criteria);
+        assertEquals(List.of("Framework 1", "Framework 2", "Framework 3", "Deprecated"),
+                frameworks.stream().map(JavaScriptFrameworkDTO::getName).collect(Collectors.toList()));
+        assertStatementCount(2);
+
+        criteria.setHypeLevel(null);
+        criteria.setDeprecatedAfter(LocalDate.of(2016, 1, 1));
+        criteria.setDeprecatedBefore(LocalDate.of(2021, 1, 1));
+        assertEquals(List.of("Deprecated"), search(criteria).stream().map(JavaScriptFrameworkDTO::getName).collect(Collectors.toList()));
+
+        criteria.setDeprecatedAfter(null);
+        assertEquals(2, search(criteria).size());
+    }
+
+    @Test
+    public void updatesShouldIncrementRevision() {
+
+        var id = repository.findByName("Framework 3").orElseThrow().getId();
+        var collectionVersion = service.collectionVersion();
+        long revision = service.findRevision(id).orElseThrow();
+
+        long updated = service.update(id, new JavaScriptFrameworkDTO(null, "Framework 3", Set.of("3.0"), null, HypeLevel.HIGH), Set.of(revision));
+        assertEquals(revision + 1, updated);
+        assertTrue(service.collectionVersion().getChangeSeq() > collectionVersion.getChangeSeq());
+
+        service.addVersion("Framework 3", "4.0");
+        assertEquals(Long.valueOf(updated + 1), service.findFrameworkById(id).orElseThrow().getRevision());
+
+        try {
+            service.update(id, new JavaScriptFrameworkDTO(null, "Framework 3", Set.of(), null, HypeLevel.LOW), Set.of(updated));
+            fail("Stale revision was updated");
+        } catch (JavascriptFrameworkPreconditionFailedException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void batchShouldKeepRequestOrderAndReportMissing() {
+
+        var third = repository.findIdByName("Framework 3").orElseThrow();
+        var first = repository.findIdByName("Framework 1").orElseThrow();
+        statistics.clear();
+
+        var batch = service.findFrameworks(new LinkedHashSet<>(List.of(third, -1L, first)),
+                new LinkedHashSet<>(List.of("Framework 5", "Framework 1", "Unknown")));
+
+        assertEquals(List.of("Framework 3", "Framework 1", "Framework 5"),
+                batch.getItems().stream().map(JavaScriptFrameworkDTO::getName).collect(Collectors.toList()));
+        assertEquals(Set.of("5.0", "5.1", "5.2"), batch.getItems().get(2).getVersion());
+        assertEquals(List.of(-1L), batch.getMissingIds());
+        assertEquals(List.of("Unknown"), batch.getMissingNames());
+        assertStatementCount(2);
+    }
+
+    @Test
+    public void patchOfHypeLevelShouldUpdateOneRow() {
+
+        var id = repository.findIdByName("Framework 2").orElseThrow();
+        statistics.clear();
+
+        var patch = new JavaScriptFrameworkPatchDTO();
+        patch.setHypeLevel(HypeLevel.HIGH);
+        service.patch(id, patch, null);
+
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, statistics.getCollectionUpdateCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+        // select, the change counter and the update
+        assertStatementCount(4);
+
+        var framework = service.findFrameworkById(id).orElseThrow();
+        assertEquals(HypeLevel.HIGH, framework.getHypeLevel());
+        assertEquals(Set.of("2.0", "2.1", "2.2"), framework.getVersion());
+    }
+
+    @Test
+    public void updateShouldWriteOnlyChangedVersions() {
+
+        var id = repository.findIdByName("Framework 4").orElseThrow();
+        statistics.clear();
+
+        service.update(id, new JavaScriptFrameworkDTO(null, "Framework 4", Set.of("4.0", "4.1", "5.0"), null, HypeLevel.LOW), null);
+
+        assertEquals(0, statistics.getCollectionRecreateCount());
+        assertEquals(0, statistics.getCollectionRemoveCount());
+        // select, the change counter, delete of 4.2, insert of 5.0 and the revision
+        assertStatementCount(6);
+        assertEquals(Set.of("4.0", "4.1", "5.0"), repository.findById(id).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void statsShouldBeGroupedByDatabaseAndCachedUntilModified() {
+
+        // the frameworks of setUp are saved without a modification number
+        service.createFramework(new JavaScriptFrameworkDTO(null, "React", Set.of("17.0", "18.0", "18.1", "18.2"), LocalDate.of(2030, 6, 1), HypeLevel.HIGH));
+        statistics.clear();
+
+        var stats = service.stats(new JavaScriptFrameworkSearchCriteria());
+
+        assertEquals(FRAMEWORK_COUNT + 1, stats.getTotal());
+        assertEquals(List.of(HypeLevel.LOW, HypeLevel.HIGH), stats.getByHypeLevel().stream()
+                .map(JavaScriptFrameworkStatsDTO.HypeLevelCount::getHypeLevel).collect(Collectors.toList()));
+        assertEquals(List.of((long) FRAMEWORK_COUNT, 1L), stats.getByHypeLevel().stream()
+                .map(JavaScriptFrameworkStatsDTO.HypeLevelCount::getCount).collect(Collectors.toList()));
+        assertNull(stats.getByDeprecationYear().get(0).getYear());
+        assertEquals(Integer.valueOf(2030), stats.getByDeprecationYear().get(1).getYear());
+        assertEquals(1, stats.getByDeprecationYear().get(1).getCount());
+        assertEquals(10, stats.getMostVersioned().size());
+        assertEquals("React", stats.getMostVersioned().get(0).getName());
+        assertEquals(4, stats.getMostVersioned().get(0).getVersions());
+        // the change counter and three groupings
+        assertStatementCount(4);
+
+        statistics.clear();
+        assertSame(stats, service.stats(new JavaScriptFrameworkSearchCriteria()));
+        assertStatementCount(1);
+
+        service.addVersion("Framework 1", "1.3");
+        var modified = service.stats(new JavaScriptFrameworkSearchCriteria());
+        assertTrue(modified.getChangeSeq() > stats.getChangeSeq());
+        // ties in the order of the ids
+        assertEquals(List.of("Framework 1", "React"), modified.getMostVersioned().stream().limit(2)
+                .map(JavaScriptFrameworkStatsDTO.VersionCount::getName).collect(Collectors.toList()));
+
+        var hyped = new JavaScriptFrameworkSearchCriteria();
+        hyped.setHypeLevel(Set.of(HypeLevel.HIGH));
+        var filtered = service.stats(hyped);
+        assertEquals(1, filtered.getTotal());
+        assertEquals(1, filtered.getByDeprecationYear().size());
+        assertEquals(Integer.valueOf(2030), filtered.getByDeprecationYear().get(0).getYear());
+    }
+
+    @Test
+    public void changesShouldBeReadInOrderOfModification() {
+
+        long since = service.collectionVersion().getChangeSeq();
+        var first = repository.findIdByName("Framework 1").orElseThrow();
+        var second = repository.findIdByName("Framework 2").orElseThrow();
+
+        service.addVersion("Framework 2", "2.3");
+        service.delete(first);
+        var created = service.createFramework(new JavaScriptFrameworkDTO(null, "Svelte", Set.of("4.0"), null, HypeLevel.HIGH));
+        importService.importFrameworks(List.of(new JavaScriptFrameworkDTO(null, "Framework 2", Set.of("2.4"), null, HypeLevel.MEDIUM)).iterator(), true);
+
+        // the second change of Framework 2 moved it after Svelte
+        var changes = service.findChanges(since, 2);
+        assertEquals(List.of("Svelte"), changes.getItems().stream().map(JavaScriptFrameworkDTO::getName).collect(Collectors.toList()));
+        assertEquals(created.getId(), changes.getItems().get(0).getId());
+        assertEquals(first, changes.getDeleted().get(0).getId());
+        assertEquals("Framework 1", changes.getDeleted().get(0).getName());
+        assertTrue(changes.isHasMore());
+
+        changes = service.findChanges(changes.getNext(), 2);
+        assertEquals(1, changes.getItems().size());
+        assertEquals(second, changes.getItems().get(0).getId());
+        assertEquals(Set.of("2.4"), changes.getItems().get(0).getVersion());
+        assertTrue(changes.getDeleted().isEmpty());
+        assertFalse(changes.isHasMore());
+        assertEquals(service.collectionVersion().getChangeSeq(), changes.getNext());
+
+        long next = changes.getNext();
+        changes = service.findChanges(next, 2);
+        assertTrue(changes.getItems().isEmpty());
+        assertEquals(next, changes.getNext());
+    }
+
+    @Test
+    public void changesOlderThanPrunedTombstonesShouldRequireResync() {
+
+        long since = service.collectionVersion().getChangeSeq();
+        service.delete(repository.findIdByName("Framework 1").orElseThrow());
+        long deleted = service.collectionVersion().getChangeSeq();
+        service.delete(repository.findIdByName("Framework 2").orElseThrow());
+
+        // nothing has been deleted before the cutoff
+        assertEquals(0, pruner.prune(Instant.now().minusSeconds(3600)));
+        assertEquals(2, service.findChanges(since, 10).getDeleted().size());
+
+        assertEquals(2, pruner.prune(Instant.now().plusSeconds(1)));
+        assertTrue(tombstoneRepository.findAll().isEmpty());
+        try {
+            service.findChanges(since, 10);
+            fail("Changes older than the pruned tombstones were read");
+        } catch (JavascriptFrameworkResyncRequiredException e) {
+            // expected
+        }
+        try {
+            service.findChanges(deleted, 10);
+            fail("Changes older than the pruned tombstones were read");
+        } catch (JavascriptFrameworkResyncRequiredException e) {
+            // expected
+        }
+
+        long pruned = service.collectionVersion().getChangeSeq();
+        assertTrue(service.findChanges(pruned, 10).getDeleted().isEmpty());
+        // a client starting again reads the current frameworks without the removed ones
+        assertTrue(service.findChanges(0, 1000).getDeleted().isEmpty());
+    }
+
+    private List<JavaScriptFrameworkDTO> search(JavaScriptFrameworkSearchCriteria criteria) {
+        return service.search(criteria, PageRequest.of(0, 100), false).getItems();
+    }
+
+    private static JavaScriptFrameworkSearchCriteria criteria(String name, NameMatch nameMatch) {
+        var criteria = new JavaScriptFrameworkSearchCriteria();
+        criteria.setName(name);
+        criteria.setNameMatch(nameMatch);
+        return criteria;
+    }
+
+    private static JavaScriptFrameworkSearchCriteria criteria(String name, NameMatch nameMatch, HypeLevel hypeLevel) {
+        var criteria = criteria(name, nameMatch);
+        criteria.setHypeLevel(Set.of(hypeLevel));
+        return criteria;
+    }
+
+    private int countMatches(String name, NameMatch nameMatch) {
+        return service.search(criteria(name, nameMatch), PageRequest.of(0, 100), false).getItems().size();
+    }
+
+    private void assertStatementCount(long max) {
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue("Expected at most " + max + " statements but " + statements + " were executed", statements <= max);
+    }
+}
@@ -3,25 +3,44 @@ package com.etnetera.hr.service;
 import com.etnetera.hr.data.HypeLevel;
 import com.etnetera.hr.data.JavaScriptFramework;
 import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
 import com.etnetera.hr.exception.JavascriptFrameworkDuplicateException;
+import com.etnetera.hr.exception.JavascriptFrameworkInvalidRequestException;
 import com.etnetera.hr.exception.JavascriptFrameworkNotFoundException;
+import com.etnetera.hr.exception.JavascriptFrameworkPreconditionFailedException;
 import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -35,6 +54,17 @@ public class JavaScriptFrameworkServiceTest {
     @MockBean
     private JavaScriptFrameworkRepository repository;
 
+    @MockBean
+    private JavaScriptFrameworkChangeFeed changeFeed;
+
+    @Autowired
+    private JavaScriptFrameworkCache cache;
+
+    @Before
+    public void setUp() {
+        cache.invalidateAll();
+    }
+
     @Test(expected = JavascriptFrameworkNotFoundException.class)
     public void shouldThrowWhenDeleteByIdNotFound() {
 
@@ -48,13 +78,39 @@ public class JavaScriptFrameworkServiceTest {
 
         when(repository.existsById(anyLong())).thenReturn(true);
 
-        service.update(999L, createDto());
+        service.update(999L, createDto(), null);
     }
 
     @Test(expected = JavascriptFrameworkDuplicateException.class)
     public void shouldThrowWhenCreatingDuplicateFramework() {
 
-        when(repository.findByName(anyString())).thenReturn(Optional.of(createFramework(1L)));
+        when(repository.saveAndFlush(any(JavaScriptFramework.class))).thenThrow(uniqueViolation());
+
+        service.createFramework(createDto());
+    }
+
+    @Test(expected = JavascriptFrameworkDuplicateException.class)
+    public void shouldThrowWhenRenamingToDuplicateFramework() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(createFramework(1L)));
+        when(repository.saveAndFlush(any(JavaScriptFramework.class))).thenThrow(uniqueViolation());
+
+        service.update(1L, createDto(), null);
+    }
+
+    @Test(expected = JavascriptFrameworkPreconditionFailedException.class)
+    public void shouldRejectUpdateOfAnotherRevision() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(createFramework(1L)));
+
+        service.update(1L, createDto(), Set.of(5L));
+    }
+
+    @Test(expected = DataIntegrityViolationException.class)
+    public void shouldNotReportOtherViolationsAsDuplicate() {
+
+        when(repository.saveAndFlush(any(JavaScriptFramework.class))).thenThrow(
+                new DataIntegrityViolationException("not null", new ConstraintViolationException("not null", new SQLException("not null", "23502"), null)));
 
         service.createFramework(createDto());
     }
@@ -62,7 +118,8 @@ public class JavaScriptFrameworkServiceTest {
     @Test(expected = JavascriptFrameworkDuplicateException.class)
     public void shouldThrowWhenCreatingDuplicateVersion() {
 
-        when(repository.findByName(anyString())).thenReturn(Optional.of(createFramework(1L)));
+        when(repository.findIdByName(anyString())).thenReturn(Optional.of(1L));
+        when(repository.insertVersion(1L, "1.0")).thenThrow(uniqueViolation());
 
         service.addVersion("TestFramework", "1.0");
     }
@@ -77,14 +134,83 @@ public class JavaScriptFrameworkServiceTest {
         assertEquals(Optional.empty(), framework);
     }
 
+    @Test
+    public void shouldServeRepeatedFindFromCache() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(createFramework(1L)));
+
+        service.findFrameworkById(1L);
+        var framework = service.findFrameworkById(1L);
+
+        assertEquals("TestFramework 1", framework.orElseThrow().getName());
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void shouldNotCacheMissingFramework() {
+
+        when(repository.existsByName(anyString())).thenReturn(false);
+
+        assertFalse(service.exists("TestFramework"));
+        assertFalse(service.exists("TestFramework"));
+
+        verify(repository, times(2)).existsByName("TestFramework");
+        verify(repository, never()).findByName(anyString());
+    }
+
+    @Test
+    public void shouldEvictCachedFrameworkOnUpdate() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(createFramework(1L)));
+
+        service.findFrameworkById(1L);
+        assertTrue(service.exists("TestFramework 1"));
+        verify(repository, never()).existsByName(anyString());
+
+        service.update(1L, createDto(), null);
+
+        service.findFrameworkById(1L);
+        service.exists("TestFramework 1");
+
+        // find, update and find again
+        verify(repository, times(3)).findById(1L);
+        verify(repository, times(1)).existsByName("TestFramework 1");
+    }
+
+    @Test
+    public void shouldRejectCachedDuplicateVersionWithoutLoading() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(createFramework(1L)));
+        service.findFrameworkById(1L);
+
+        try {
+            service.addVersion("TestFramework 1", "1.0");
+            fail("Duplicate version was added");
+        } catch (JavascriptFrameworkDuplicateException e) {
+            verify(repository, never()).findIdByName("TestFramework 1");
+            verify(repository, never()).insertVersion(anyLong(), anyString());
+        }
+    }
+
     @Test
     public void testAddVersion() {
 
-        when(repository.findByName(anyString())).thenReturn(Optional.of(createFramework(1L)));
+        when(repository.findIdByName(anyString())).thenReturn(Optional.of(1L));
 
         service.addVersion("TestFramework", "999.0");
 
-        verify(repository, times(1)).save(any(JavaScriptFramework.class));
+        verify(repository, times(1)).insertVersion(1L, "999.0");
+        verify(repository, times(1)).incrementRevision(eq(1L), anyLong(), any(Instant.class));
+        verify(repository, never()).findByName(anyString());
+        verify(repository, never()).save(any(JavaScriptFramework.class));
+    }
+
+    @Test(expected = JavascriptFrameworkNotFoundException.class)
+    public void shouldThrowWhenAddingVersionToMissingFramework() {
+
+        when(repository.findIdByName(anyString())).thenReturn(Optional.empty());
+
+        service.addVersion("TestFramework", "999.0");
     }
 
     @Test
@@ -105,14 +231,105 @@ public class JavaScriptFrameworkServiceTest {
         assertEquals(HypeLevel.HIGH, dto.getHypeLevel());
     }
 
+    @Test
+    public void testFindFrameworksPage() {
+
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(createFramework(1), createFramework(2), createFramework(3)));
+
+        var page = service.findFrameworks(null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(Long.valueOf(2L), page.getNext());
+    }
+
+    @Test
+    public void testFindFrameworksLastPage() {
+
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(2L), any())).thenReturn(List.of(createFramework(3)));
+
+        var page = service.findFrameworks(2L, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNext());
+    }
+
     @Test
     public void testSearch() {
 
-        when(repository.findAll(Mockito.< Specification<JavaScriptFramework> >any())).thenReturn(List.of(createFramework(1), createFramework(2)));
+        when(repository.findSlice(any(), any())).thenReturn(new SliceImpl<>(List.of(createFramework(1), createFramework(2)), PageRequest.of(0, 2), true));
 
-        var dtoList = service.search("Test", null, null, null);
+        var result = service.search(new JavaScriptFrameworkSearchCriteria(), PageRequest.of(0, 2), false);
 
-        assertEquals(2, dtoList.size());
+        assertEquals(2, result.getItems().size());
+        assertTrue(result.isHasNext());
+        assertNull(result.getTotal());
+        verify(repository, never()).findAll(Mockito.< Specification<JavaScriptFramework> >any(), any(Pageable.class));
+    }
+
+    @Test
+    public void testSearchWithTotal() {
+
+        when(repository.findAll(Mockito.< Specification<JavaScriptFramework> >any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(createFramework(1)), PageRequest.of(0, 2), 1));
+
+        var result = service.search(new JavaScriptFrameworkSearchCriteria(), PageRequest.of(0, 2), true);
+
+        assertEquals(Long.valueOf(1L), result.getTotal());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test(expected = JavascriptFrameworkInvalidRequestException.class)
+    public void testSearchByUnknownProperty() {
+
+        service.search(new JavaScriptFrameworkSearchCriteria(), PageRequest.of(0, 2, Sort.by("searchName")), false);
+    }
+
+    private static DataIntegrityViolationException uniqueViolation() {
+        return new DataIntegrityViolationException("duplicate", new ConstraintViolationException("duplicate", new SQLException("duplicate", "23505"), "UK_NAME"));
+    }
+
+    @Test
+    public void patchShouldChangeOnlyPresentProperties() {
+
+        var framework = createFramework(1L);
+        when(repository.findWithoutVersionsById(1L)).thenReturn(Optional.of(framework));
+        when(repository.saveAndFlush(framework)).thenReturn(framework);
+
+        var patch = new JavaScriptFrameworkPatchDTO();
+        patch.setHypeLevel(HypeLevel.LOW);
+        patch.setDeprecationDate(null);
+        service.patch(1L, patch, null);
+
+        assertEquals(HypeLevel.LOW, framework.getHypeLevel());
+        assertNull(framework.getDeprecationDate());
+        assertEquals("TestFramework 1", framework.getName());
+        assertEquals(Set.of("1.0", "1.0.1", "1.2", "2"), framework.getVersion());
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void patchShouldDiffVersions() {
+
+        var framework = createFramework(1L);
+        var versions = framework.getVersion();
+        when(repository.findById(1L)).thenReturn(Optional.of(framework));
+        when(repository.saveAndFlush(framework)).thenReturn(framework);
+
+        var patch = new JavaScriptFrameworkPatchDTO();
+        patch.setVersion(Set.of("1.0", "3.0"));
+        service.patch(1L, patch, null);
+
+        // the loaded collection is modified instead of replaced
+        assertSame(versions, framework.getVersion());
+        assertEquals(Set.of("1.0", "3.0"), framework.getVersion());
+    }
+
+    @Test(expected = JavascriptFrameworkInvalidRequestException.class)
+    public void patchShouldRejectRemovedName() {
+
+        var patch = new JavaScriptFrameworkPatchDTO();
+        patch.setName(null);
+        service.patch(1L, patch, null);
     }
 
     private JavaScriptFrameworkDTO createDto() {
@@ -123,7 +340,7 @@ public class JavaScriptFrameworkServiceTest {
         var framework = new JavaScriptFramework();
         framework.setId(id);
         framework.setName("TestFramework " + id);
-        framework.setVersion(Set.of("1.0", "1.0.1", "1.2", "2"));
+        framework.setVersion(new HashSet<>(Set.of("1.0", "1.0.1", "1.2", "2")));
         framework.setDeprecationDate(null);
         framework.setHypeLevel(HypeLevel.HIGH);
 
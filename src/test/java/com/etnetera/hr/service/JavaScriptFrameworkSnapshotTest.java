@@ -0,0 +1,265 @@
+package com.etnetera.hr.service;
+
+import com.etnetera.hr.data.HypeLevel;
+import com.etnetera.hr.data.NameMatch;
+import com.etnetera.hr.dto.JavaScriptFrameworkDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkPatchDTO;
+import com.etnetera.hr.dto.JavaScriptFrameworkSearchCriteria;
+import com.etnetera.hr.repository.JavaScriptFrameworkRepository;
+import com.etnetera.hr.repository.JavaScriptFrameworkTombstoneRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the reads served from the snapshot with the same reads from the database
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshot;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "frameworks.snapshot.enabled=true",
+        // polled by the tests
+        "frameworks.changes.poll-interval=1h"
+})
+public class JavaScriptFrameworkSnapshotTest {
+
+    private static final int FRAMEWORK_COUNT = 40;
+
+    private static final List<Sort> SORTS = List.of(Sort.by("id"), Sort.by("name").descending(), Sort.by("deprecationDate"),
+            Sort.by(Sort.Order.desc("hypeLevel"), Sort.Order.asc("name")));
+
+    @Autowired
+    private JavaScriptFrameworkService service;
+
+    @Autowired
+    private JavaScriptFrameworkSnapshotService snapshotService;
+
+    @Autowired
+    private JavaScriptFrameworkServiceImpl databaseService;
+
+    @Autowired
+    private JavaScriptFrameworkChangeFeed changeFeed;
+
+    @Autowired
+    private JavaScriptFrameworkImportService importService;
+
+    @Autowired
+    private JavaScriptFrameworkRepository repository;
+
+    @Autowired
+    private JavaScriptFrameworkTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < FRAMEWORK_COUNT; i++) {
+            var deprecationDate = i % 3 == 0 ? null : LocalDate.of(2020, 1, 1).plusDays(i % 7);
+            var hypeLevel = i % 4 == 0 ? null : HypeLevel.values()[i % HypeLevel.values().length];
+            service.createFramework(new JavaScriptFrameworkDTO(null, (i % 2 == 0 ? "Vue " : "React ") + i,
+                    Set.of("1." + (i % 5), "2." + (i % 3)), deprecationDate, hypeLevel));
+        }
+        changeFeed.poll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @After
+    public void tearDown() {
+        repository.deleteAll();
+        tombstoneRepository.deleteAll();
+        snapshotService.load();
+    }
+
+    @Test
+    public void readsShouldNotTouchTheDatabase() {
+
+        var all = service.findAllFrameworks();
+        var first = service.findFrameworkById(all.get(0).getId()).orElseThrow();
+        service.findFrameworks(null, 10);
+        service.search(criteria("vue", NameMatch.CONTAINS), PageRequest.of(0, 10), true);
+
+        assertEquals(FRAMEWORK_COUNT, all.size());
+        assertEquals("Vue 0", first.getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void searchShouldMatchTheDatabase() {
+
+        for (var criteria : criteriaCombinations()) {
+            for (var sort : SORTS) {
+                for (int page = 0; page < 3; page++) {
+                    var pageable = PageRequest.of(page, 7, sort);
+                    var expected = databaseService.search(criteria, pageable, true);
+                    var actual = service.search(criteria, pageable, true);
+
+                    var description = criteria + " " + pageable;
+                    assertEquals(description, ids(expected.getItems()), ids(actual.getItems()));
+                    assertEquals(description, expected.isHasNext(), actual.isHasNext());
+                    assertEquals(description, expected.getTotal(), actual.getTotal());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void parallelSearchShouldMatchSequentialSearch() {
+
+        var snapshot = JavaScriptFrameworkSnapshot.of(databaseService.findAllFrameworks(), 0, Instant.EPOCH);
+        var pool = new ForkJoinPool(4);
+        try {
+            // split down to a few frameworks per part
+            var parallelism = new SearchParallelism(pool, 1, 3);
+            for (var criteria : criteriaCombinations()) {
+                assertEquals(criteria.toString(), snapshot.matching(criteria, SearchParallelism.SEQUENTIAL), snapshot.matching(criteria, parallelism));
+                for (var sort : SORTS) {
+                    var pageable = JavaScriptFrameworkServiceImpl.searchPage(PageRequest.of(1, 7, sort));
+                    var expected = snapshot.search(criteria, pageable, true, SearchParallelism.SEQUENTIAL);
+                    var actual = snapshot.search(criteria, pageable, true, parallelism);
+
+                    var description = criteria + " " + pageable;
+                    assertEquals(description, ids(expected.getItems()), ids(actual.getItems()));
+                    assertEquals(description, expected.getTotal(), actual.getTotal());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void appliedModificationsShouldMatchNewSnapshot() {
+
+        var frameworks = databaseService.findAllFrameworks();
+        var snapshot = JavaScriptFrameworkSnapshot.of(frameworks, 0, Instant.EPOCH);
+
+        var first = frameworks.get(0);
+        var second = frameworks.get(1);
+        var renamed = new JavaScriptFrameworkDTO(first.getId(), "Angular 0", Set.of("1.1", "9.9"), LocalDate.of(2020, 1, 3), HypeLevel.LOW);
+        var redated = new JavaScriptFrameworkDTO(second.getId(), second.getName(), second.getVersion(), LocalDate.of(2019, 12, 31), null);
+        var created = new JavaScriptFrameworkDTO(Long.MAX_VALUE, "Ember", Set.of("9.9"), LocalDate.of(2020, 1, 2), HypeLevel.INSANE);
+        var deleted = List.of(frameworks.get(2).getId(), frameworks.get(3).getId());
+
+        var applied = snapshot.apply(List.of(renamed, redated, created), deleted, 1, Instant.EPOCH);
+
+        var expectedFrameworks = frameworks.stream()
+                .filter(framework -> !deleted.contains(framework.getId()))
+                .map(framework -> framework.getId().equals(first.getId()) ? renamed : framework.getId().equals(second.getId()) ? redated : framework)
+                .collect(Collectors.toList());
+        expectedFrameworks.add(created);
+        var expected = JavaScriptFrameworkSnapshot.of(expectedFrameworks, 1, Instant.EPOCH);
+
+        var rareVersion = new JavaScriptFrameworkSearchCriteria();
+        rareVersion.setVersion(Set.of("9.9", "1.2"));
+        var criteria = new ArrayList<>(criteriaCombinations());
+        criteria.addAll(List.of(rareVersion, criteria("a", NameMatch.PREFIX), criteria("ang", NameMatch.PREFIX)));
+        for (var combination : criteria) {
+            for (var sort : SORTS) {
+                var pageable = JavaScriptFrameworkServiceImpl.searchPage(PageRequest.of(0, 50, sort));
+                var description = combination + " " + pageable;
+                assertEquals(description, ids(expected.search(combination, pageable, true, SearchParallelism.SEQUENTIAL).getItems()),
+                        ids(applied.search(combination, pageable, true, SearchParallelism.SEQUENTIAL).getItems()));
+            }
+        }
+        assertEquals(ids(expected.all()), ids(applied.all()));
+        assertEquals("Angular 0", applied.byId(first.getId()).orElseThrow().getName());
+        assertFalse(applied.byName(first.getName()).isPresent());
+    }
+
+    @Test
+    public void writesShouldBeAppliedByThePoll() {
+
+        var version = service.collectionVersion();
+        var vue = service.findAllFrameworks().get(0);
+
+        var patch = new JavaScriptFrameworkPatchDTO();
+        patch.setName("Vue.js");
+        long revision = service.patch(vue.getId(), patch, null);
+        service.addVersion("Vue.js", "3.0");
+        var react = service.createFramework(new JavaScriptFrameworkDTO(null, "React", Set.of(), null, HypeLevel.HIGH));
+        service.delete(service.findAllFrameworks().get(1).getId());
+        // the writes have been polled in the background already, or this poll waits for them
+        changeFeed.poll();
+
+        var patched = service.findFrameworkById(vue.getId()).orElseThrow();
+        assertEquals("Vue.js", patched.getName());
+        assertTrue(patched.getVersion().contains("3.0"));
+        assertEquals(Long.valueOf(revision + 1), service.findRevision(vue.getId()).orElseThrow());
+        assertTrue(service.exists("React"));
+        assertEquals(react.getId(), service.findAllFrameworks().get(FRAMEWORK_COUNT - 1).getId());
+        assertEquals(FRAMEWORK_COUNT, service.findAllFrameworks().size());
+        assertEquals(databaseService.collectionVersion().getChangeSeq(), service.collectionVersion().getChangeSeq());
+        assertTrue(service.collectionVersion().getChangeSeq() > version.getChangeSeq());
+    }
+
+    @Test
+    public void importShouldBeAppliedByThePoll() {
+
+        var result = importService.importFrameworks(List.of(new JavaScriptFrameworkDTO(null, "Svelte", Set.of("4.0"), null, HypeLevel.HIGH)).iterator(), false);
+        var id = result.getItems().get(0).getId();
+
+        changeFeed.poll();
+
+        assertEquals("Svelte", service.findFrameworkById(id).orElseThrow().getName());
+        assertEquals(List.of("Svelte"), service.findFrameworks(List.of(id), List.of("Svelte", "Ember")).getItems().stream()
+                .map(JavaScriptFrameworkDTO::getName).collect(Collectors.toList()));
+    }
+
+    private static List<JavaScriptFrameworkSearchCriteria> criteriaCombinations() {
+        var byVersion = new JavaScriptFrameworkSearchCriteria();
+        byVersion.setVersion(Set.of("1.1", "2.2"));
+        var byHypeLevel = new JavaScriptFrameworkSearchCriteria();
+        byHypeLevel.setHypeLevel(Set.of(HypeLevel.LOW, HypeLevel.INSANE));
+        var byDates = new JavaScriptFrameworkSearchCriteria();
+        byDates.setDeprecatedAfter(LocalDate.of(2020, 1, 2));
+        byDates.setDeprecatedBefore(LocalDate.of(2020, 1, 6));
+        var byDate = new JavaScriptFrameworkSearchCriteria();
+        byDate.setDeprecationDate(LocalDate.of(2020, 1, 3));
+        var combined = criteria("react 1", NameMatch.PREFIX);
+        combined.setVersion(Set.of("1.1", "1.3"));
+        combined.setHypeLevel(Set.of(HypeLevel.MEDIUM, HypeLevel.HIGH, HypeLevel.INSANE));
+        var containsCombined = criteria("1", NameMatch.CONTAINS);
+        containsCombined.setHypeLevel(Set.of(HypeLevel.LOW, HypeLevel.HIGH));
+
+        return List.of(new JavaScriptFrameworkSearchCriteria(), criteria("ue 1", NameMatch.CONTAINS),
+                criteria("REACT", NameMatch.PREFIX), byVersion, byHypeLevel, byDates, byDate, combined, containsCombined);
+    }
+
+    private static JavaScriptFrameworkSearchCriteria criteria(String name, NameMatch nameMatch) {
+        var criteria = new JavaScriptFrameworkSearchCriteria();
+        criteria.setName(name);
+        criteria.setNameMatch(nameMatch);
+        return criteria;
+    }
+
+    private static List<Long> ids(List<JavaScriptFrameworkDTO> frameworks) {
+        return frameworks.stream().map(JavaScriptFrameworkDTO::getId).collect(Collectors.toList());
+    }
+}